@@ -0,0 +1,45 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds in-memory indexes for the given number of users and notes per user (arguments, default 100 and
+ * 1000) and prints the retained heap per note next to the index's own size estimate.
+ */
+public final class NoteIndexFootprint {
+
+    private NoteIndexFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int notesPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        long before = usedHeap();
+        List<UserNoteIndex> indexes = new ArrayList<>(users);
+        for (int user = 0; user < users; user++) {
+            indexes.add(SyntheticNotes.index(notesPerUser, user));
+        }
+        long after = usedHeap();
+
+        long notes = (long) users * notesPerUser;
+        long estimated = indexes.stream().mapToLong(UserNoteIndex::sizeInBytes).sum();
+        System.out.printf("%d users x %d notes%n", users, notesPerUser);
+        System.out.printf("retained heap: %,d bytes (%.1f bytes/note)%n", after - before, (double) (after - before) / notes);
+        System.out.printf("estimated:     %,d bytes (%.1f bytes/note)%n", estimated, (double) estimated / notes);
+        Reference.reachabilityFence(indexes);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
\ No newline at end of file
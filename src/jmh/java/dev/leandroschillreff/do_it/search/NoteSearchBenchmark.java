@@ -0,0 +1,69 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Query and update latency of one user's in-memory index. See {@link NoteIndexFootprint} for memory
+ * per note.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteSearchBenchmark {
+
+    private static final List<String> COMMON_TERM = List.of("w0");
+    private static final List<String> RARE_TERM = List.of("w4000");
+    private static final List<String> TWO_TERMS = List.of("w1", "w50");
+
+    @Param({ "1000", "10000", "100000" })
+    public int notes;
+
+    private UserNoteIndex index;
+    private SyntheticNotes text;
+    private long nextUpdate;
+    private long changeSeq;
+
+    @Setup
+    public void setUp() {
+        index = SyntheticNotes.index(notes, 42);
+        text = new SyntheticNotes(7);
+        changeSeq = notes;
+    }
+
+    @Benchmark
+    public List<Long> commonTerm() {
+        return index.search(COMMON_TERM, 20, 0);
+    }
+
+    @Benchmark
+    public List<Long> rareTerm() {
+        return index.search(RARE_TERM, 20, 0);
+    }
+
+    @Benchmark
+    public List<Long> twoTerms() {
+        return index.search(TWO_TERMS, 20, 0);
+    }
+
+    @Benchmark
+    public void updateNote() {
+        nextUpdate = nextUpdate % notes + 1;
+        index.put(nextUpdate, ++changeSeq, text.title(), text.description());
+    }
+}
\ No newline at end of file
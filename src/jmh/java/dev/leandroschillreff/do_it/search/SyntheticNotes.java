@@ -0,0 +1,44 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.Random;
+
+/**
+ * Generates note text over a fixed vocabulary with a skewed word distribution, so that low word numbers
+ * are common terms ("w0") and high ones are rare ("w4000").
+ */
+final class SyntheticNotes {
+
+    static final int VOCABULARY = 5000;
+
+    private final Random random;
+
+    SyntheticNotes(long seed) {
+        this.random = new Random(seed);
+    }
+
+    String title() {
+        return words(3 + random.nextInt(4));
+    }
+
+    String description() {
+        return words(20 + random.nextInt(41));
+    }
+
+    static UserNoteIndex index(int notes, long seed) {
+        SyntheticNotes text = new SyntheticNotes(seed);
+        UserNoteIndex index = new UserNoteIndex();
+        for (long noteId = 1; noteId <= notes; noteId++) {
+            index.put(noteId, noteId, text.title(), text.description());
+        }
+        return index;
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            text.append(i == 0 ? "w" : " w").append((int) (skewed * VOCABULARY));
+        }
+        return text.toString();
+    }
+}
\ No newline at end of file
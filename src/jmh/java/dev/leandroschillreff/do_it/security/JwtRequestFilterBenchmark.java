@@ -0,0 +1,82 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dev.leandroschillreff.do_it.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/**
+ * One authenticated request through {@link JwtRequestFilter} down to a mock chain, with the token
+ * version already known to the node. Includes the cost of building the mock request and response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    private static final String SECRET = "minhaChaveSecretaParaGerarTokens123456789012345678901234567890";
+
+    @Param({ "true", "false" })
+    public boolean tokenCache;
+
+    private JwtRequestFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+        TokenVersionStore tokenVersionStore = new TokenVersionStore(null, new SimpleMeterRegistry(), 100_000,
+                Duration.ofDays(1));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(),
+                tokenCache, 100_000);
+
+        filter = new JwtRequestFilter(null, jwtUtil, tokenVersionStore, verifiedTokenCache,
+                new PrometheusScrapeMatcher(-1, 0), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "stateless", true);
+
+        User user = new User();
+        user.setId(42L);
+        user.setName("Benchmark");
+        user.setEmail("benchmark@do-it.dev");
+        user.setPassword("unused");
+        tokenVersionStore.update(user.getId(), user.getTokenVersion());
+        authorization = "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes");
+        request.setServletPath("/api/notes");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.leandroschillreff.do_it.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "minhaChaveSecretaParaGerarTokens123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+
+        user = new User();
+        user.setId(42L);
+        user.setName("Benchmark");
+        user.setEmail("benchmark@do-it.dev");
+        user.setPassword("unused");
+
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Boolean verifyOnce() {
+        VerifiedToken verified = jwtUtil.verify(token);
+        return jwtUtil.validateToken(verified, user);
+    }
+
+    /**
+     * The filter path before parse-once verification: the key and parser were rebuilt for every
+     * call and the token was parsed by extractUsername, then again twice inside validateToken.
+     */
+    @Benchmark
+    public Boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        String validatedUsername = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return username != null && validatedUsername.equals(user.getUsername()) && !expiration.before(new Date());
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,62 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link PasswordEncoderBenchmark} on the current machine and prints the strongest settings whose
+ * verify time stays within the target, given in milliseconds as the first argument (default 250).
+ */
+public final class PasswordCostCalibration {
+
+    private PasswordCostCalibration() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 250;
+
+        Options options = new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getName() + "\\.(bcryptMatches|argon2Matches)")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        RunResult bcrypt = strongestWithin(results, "bcryptMatches", "strength", targetMillis);
+        RunResult argon2 = strongestWithin(results, "argon2Matches", "iterations", targetMillis);
+
+        System.out.printf("%nTarget verify time: %.0f ms%n", targetMillis);
+        if (bcrypt != null) {
+            System.out.printf("password.hashing.bcrypt.strength=%s (%.1f ms)%n",
+                    bcrypt.getParams().getParam("strength"), bcrypt.getPrimaryResult().getScore());
+        } else {
+            System.out.println("No BCrypt strength is fast enough; use the minimum strength of 8 or more hardware.");
+        }
+        if (argon2 != null) {
+            System.out.printf("password.hashing.argon2.memory-kib=%s%npassword.hashing.argon2.iterations=%s (%.1f ms)%n",
+                    argon2.getParams().getParam("memoryKib"), argon2.getParams().getParam("iterations"),
+                    argon2.getPrimaryResult().getScore());
+        } else {
+            System.out.println("No Argon2 setting is fast enough; lower PasswordEncoderBenchmark.Argon2State.memoryKib.");
+        }
+    }
+
+    private static RunResult strongestWithin(Collection<RunResult> results, String benchmark, String param,
+            double targetMillis) {
+        RunResult best = null;
+        for (RunResult result : results) {
+            if (!result.getParams().getBenchmark().endsWith("." + benchmark)
+                    || result.getPrimaryResult().getScore() > targetMillis) {
+                continue;
+            }
+            int cost = Integer.parseInt(result.getParams().getParam(param));
+            if (best == null || cost > Integer.parseInt(best.getParams().getParam(param))) {
+                best = result;
+            }
+        }
+        return best;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Verify cost of the supported password hashing algorithms across their cost parameters. Run
+ * {@link PasswordCostCalibration} to pick the parameters that match a target verify time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @State(Scope.Benchmark)
+    public static class BcryptState {
+
+        @Param({ "8", "9", "10", "11", "12", "13", "14" })
+        public int strength;
+
+        BCryptPasswordEncoder encoder;
+        String hash;
+
+        @Setup
+        public void setUp() {
+            encoder = new BCryptPasswordEncoder(strength);
+            hash = encoder.encode(PASSWORD);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Argon2State {
+
+        @Param({ "19456" })
+        public int memoryKib;
+
+        @Param({ "1", "2", "3", "4" })
+        public int iterations;
+
+        Argon2PasswordEncoder encoder;
+        String hash;
+
+        @Setup
+        public void setUp() {
+            encoder = new Argon2PasswordEncoder(16, 32, 1, memoryKib, iterations);
+            hash = encoder.encode(PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public String bcryptEncode(BcryptState state) {
+        return state.encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches(BcryptState state) {
+        return state.encoder.matches(PASSWORD, state.hash);
+    }
+
+    @Benchmark
+    public boolean argon2Matches(Argon2State state) {
+        return state.encoder.matches(PASSWORD, state.hash);
+    }
+}
\ No newline at end of file
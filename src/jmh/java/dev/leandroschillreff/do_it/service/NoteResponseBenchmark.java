@@ -0,0 +1,99 @@
+package dev.leandroschillreff.do_it.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+import dev.leandroschillreff.do_it.entity.Note;
+import dev.leandroschillreff.do_it.util.ApiResponseBuilder;
+
+/**
+ * Entity to DTO conversion and JSON serialization of the response envelopes, with an object mapper
+ * configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteResponseBenchmark {
+
+    @Param({ "1", "50", "500" })
+    public int notes;
+
+    private NoteService noteService;
+    private ObjectMapper objectMapper;
+    private List<Note> page;
+    private List<NoteResponseDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        noteService = new NoteService(null, null, null, null, null, null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            Note note = new Note();
+            note.setId((long) i + 1);
+            note.setTitle("Note " + i);
+            note.setDescription("Remember to review the quarterly report and send the summary to the team " + i);
+            note.setCreatedAt(now.minusMinutes(i));
+            note.setUpdatedAt(i % 2 == 0 ? now : null);
+            note.setCompleted(i % 3 == 0);
+            note.setCompletedAt(i % 3 == 0 ? now : null);
+            page.add(note);
+        }
+        dtos = convert();
+    }
+
+    @Benchmark
+    public List<NoteResponseDTO> convert() {
+        List<NoteResponseDTO> converted = new ArrayList<>(page.size());
+        for (Note note : page) {
+            converted.add(noteService.convertToResponseDTO(note));
+        }
+        return converted;
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() throws JsonProcessingException {
+        Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(200, "Notes retrieved successfully",
+                dtos);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(200, "Notes retrieved successfully",
+                convert());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeLoginEnvelope() throws JsonProcessingException {
+        Map<String, Object> response = ApiResponseBuilder.buildLoginResponse("header.payload.signature",
+                "refresh-token", 42L, "Benchmark", "benchmark@do-it.dev");
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.leandroschillreff.do_it.DoItApplication;
+
+/**
+ * Boots the application inside the load test JVM on a random port against a throwaway database, so
+ * a run needs nothing but the build. Rate limits are switched off because every simulated user
+ * logs in from the same address. Any {@code loadtest.app.*} system property is passed on to the
+ * application with the prefix removed, e.g. {@code -Dloadtest.app.notes.search.engine=memory}.
+ */
+final class EmbeddedServer implements AutoCloseable {
+
+    private static final String APP_PROPERTY_PREFIX = "loadtest.app.";
+    private static final String H2_URL = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String H2_POSTGRES_URL = H2_URL
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedServer(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Starts the application. {@code database} is "h2", "h2-postgres" (H2 in PostgreSQL
+     * compatibility mode) or the JDBC URL of a local PostgreSQL or H2 database, e.g. a disposable
+     * PostgreSQL container.
+     */
+    static EmbeddedServer start(String database, String username, String password) {
+        String url = switch (database) {
+            case "h2" -> H2_URL;
+            case "h2-postgres" -> H2_POSTGRES_URL;
+            default -> {
+                if (!database.startsWith("jdbc:")) {
+                    throw new IllegalArgumentException("Unknown loadtest.database: " + database);
+                }
+                yield database;
+            }
+        };
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        if (url.startsWith("jdbc:h2:")) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("jwt.secret", "loadTestSecretUsedOnlyByTheEmbeddedServer0123456789012345678901");
+        properties.put("server.port", "0");
+        properties.put("rate-limit.login.enabled", "false");
+        properties.put("rate-limit.notes.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.orm.deprecation", "ERROR");
+        properties.put("spring.main.banner-mode", "off");
+
+        Properties system = System.getProperties();
+        for (String name : system.stringPropertyNames()) {
+            if (name.startsWith(APP_PROPERTY_PREFIX)) {
+                properties.put(name.substring(APP_PROPERTY_PREFIX.length()), system.getProperty(name));
+            }
+        }
+
+        // Devtools would restart the context in its own class loader, which only slows the boot down.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new EmbeddedServer(SpringApplication.run(DoItApplication.class, args));
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram and error counts of one endpoint, recorded by a single client thread and merged
+ * after the run. Latencies are kept in microseconds with three significant digits up to one minute.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, Long> errorsByCause = new TreeMap<>();
+    private long errors;
+
+    void record(long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Counts a failed call under its HTTP status, or under "io" when no response arrived.
+     */
+    void recordError(String cause) {
+        errors++;
+        errorsByCause.merge(cause, 1L, Long::sum);
+    }
+
+    void merge(LatencyStats other) {
+        histogram.add(other.histogram);
+        errors += other.errors;
+        other.errorsByCause.forEach((cause, count) -> errorsByCause.merge(cause, count, Long::sum));
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    Map<String, Long> errorsByCause() {
+        return errorsByCause;
+    }
+
+    double errorRate() {
+        long total = count() + errors;
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    double percentileMillis(double percentile) {
+        if (count() == 0) {
+            return 0;
+        }
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double meanMillis() {
+        return count() == 0 ? 0 : histogram.getMean() / 1000.0;
+    }
+
+    double minMillis() {
+        return count() == 0 ? 0 : histogram.getMinValue() / 1000.0;
+    }
+
+    double maxMillis() {
+        return count() == 0 ? 0 : histogram.getMaxValue() / 1000.0;
+    }
+
+    /**
+     * The full histogram in HdrHistogram's compressed Base64 form, as read by HistogramLogReader
+     * and the usual HdrHistogram plotters.
+     */
+    String encodedHistogram() {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
\ No newline at end of file
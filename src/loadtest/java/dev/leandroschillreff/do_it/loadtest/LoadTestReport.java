@@ -0,0 +1,163 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Results of one run: a table on stdout and a JSON file with throughput, error counts by status,
+ * latency percentiles and the encoded HdrHistogram of every operation. Keys are written in a fixed
+ * order so two reports of different builds can be diffed directly, or compared with loadtest.baseline.
+ */
+final class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = { 50, 75, 90, 95, 99, 99.9 };
+
+    private final String label;
+    private final Instant startedAt;
+    private final Duration measurement;
+    private final Map<String, Object> config;
+    private final Map<Operation, LatencyStats> results;
+
+    LoadTestReport(String label, Instant startedAt, Duration measurement, Map<String, Object> config,
+            Map<Operation, LatencyStats> results) {
+        this.label = label;
+        this.startedAt = startedAt;
+        this.measurement = measurement;
+        this.config = config;
+        this.results = results;
+    }
+
+    void print() {
+        double seconds = seconds();
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        System.out.printf("%n[%s] %s, %.0fs%n", label, config.get("target"), seconds);
+        System.out.printf("%-32s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, LatencyStats> entry : results.entrySet()) {
+            LatencyStats stats = entry.getValue();
+            long requests = stats.count() + stats.errors();
+            totalRequests += requests;
+            totalErrors += stats.errors();
+            System.out.printf("%-32s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().endpoint(), requests, stats.errors(), requests / seconds,
+                    stats.percentileMillis(50), stats.percentileMillis(90), stats.percentileMillis(99),
+                    stats.maxMillis());
+        }
+        System.out.printf("%-32s %10d %8d %10.1f%n", "total", totalRequests, totalErrors, totalRequests / seconds);
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), toJson());
+        System.out.printf("Report written to %s%n", path.toAbsolutePath());
+    }
+
+    /**
+     * Prints how throughput, p50, p99 and the error rate of each operation changed against an
+     * earlier report.
+     */
+    void compare(Path baselinePath) throws IOException {
+        JsonNode baseline = MAPPER.readTree(baselinePath.toFile()).path("endpoints");
+        JsonNode current = toJson().path("endpoints");
+
+        System.out.printf("%nAgainst %s%n", baselinePath);
+        System.out.printf("%-32s %12s %12s %12s %16s%n", "endpoint", "req/s", "p50", "p99", "error rate");
+        for (Operation operation : results.keySet()) {
+            JsonNode before = baseline.path(operation.key());
+            JsonNode after = current.path(operation.key());
+            if (before.isMissingNode()) {
+                System.out.printf("%-32s %12s%n", operation.endpoint(), "not in baseline");
+                continue;
+            }
+            System.out.printf("%-32s %12s %12s %12s %7.2f%% > %.2f%%%n", operation.endpoint(),
+                    change(before.path("throughput"), after.path("throughput")),
+                    change(before.path("latencyMs").path("p50"), after.path("latencyMs").path("p50")),
+                    change(before.path("latencyMs").path("p99"), after.path("latencyMs").path("p99")),
+                    before.path("errorRate").asDouble() * 100, after.path("errorRate").asDouble() * 100);
+        }
+    }
+
+    private ObjectNode toJson() {
+        double seconds = seconds();
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("label", label);
+        root.put("startedAt", startedAt.toString());
+        root.set("config", MAPPER.valueToTree(config));
+
+        ObjectNode environment = root.putObject("environment");
+        environment.put("javaVersion", Runtime.version().toString());
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        long totalRequests = 0;
+        long totalErrors = 0;
+        ObjectNode endpoints = MAPPER.createObjectNode();
+        for (Map.Entry<Operation, LatencyStats> entry : results.entrySet()) {
+            LatencyStats stats = entry.getValue();
+            long requests = stats.count() + stats.errors();
+            totalRequests += requests;
+            totalErrors += stats.errors();
+
+            ObjectNode endpoint = endpoints.putObject(entry.getKey().key());
+            endpoint.put("endpoint", entry.getKey().endpoint());
+            endpoint.put("requests", requests);
+            endpoint.put("errors", stats.errors());
+            endpoint.put("errorRate", round(stats.errorRate(), 6));
+            endpoint.put("throughput", round(requests / seconds, 3));
+
+            ObjectNode latency = endpoint.putObject("latencyMs");
+            latency.put("min", round(stats.minMillis(), 3));
+            latency.put("mean", round(stats.meanMillis(), 3));
+            for (double percentile : PERCENTILES) {
+                latency.put(percentileKey(percentile), round(stats.percentileMillis(percentile), 3));
+            }
+            latency.put("max", round(stats.maxMillis(), 3));
+
+            endpoint.set("errorsByStatus", MAPPER.valueToTree(stats.errorsByCause()));
+            endpoint.put("histogram", stats.encodedHistogram());
+        }
+
+        ObjectNode totals = root.putObject("totals");
+        totals.put("requests", totalRequests);
+        totals.put("errors", totalErrors);
+        totals.put("errorRate", round(totalRequests == 0 ? 0 : (double) totalErrors / totalRequests, 6));
+        totals.put("throughput", round(totalRequests / seconds, 3));
+        root.set("endpoints", endpoints);
+        return root;
+    }
+
+    private double seconds() {
+        return measurement.toMillis() / 1000.0;
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString().replace('.', '_');
+    }
+
+    private static String change(JsonNode before, JsonNode after) {
+        double previous = before.asDouble();
+        if (previous == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (after.asDouble() - previous) / previous * 100);
+    }
+
+    private static double round(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+    }
+}
\ No newline at end of file
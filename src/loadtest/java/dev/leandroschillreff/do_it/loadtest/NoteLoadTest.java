@@ -0,0 +1,331 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Seeds users and notes, then drives the API with many concurrent clients replaying a weighted mix
+ * of login, list, get, create, update, complete and delete. Without loadtest.base-url the
+ * application is booted in-process against an embedded database (see {@link EmbeddedServer}), so a
+ * run is reproducible from the build alone. Results are printed and written as JSON (see
+ * {@link LoadTestReport}). Run it once against a server started with VIRTUAL_THREADS_ENABLED=false
+ * and once with true, using the same settings, to compare both modes.
+ */
+public final class NoteLoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PASSWORD = "loadtest-password";
+    private static final String DEFAULT_MIX = "login=2,list=20,get=40,create=10,update=15,complete=5,delete=8";
+    private static final int BATCH_SIZE = 500;
+
+    private record Account(String email, String token, List<Long> noteIds) {
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private NoteLoadTest(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String remoteUrl = System.getProperty("loadtest.base-url");
+        String database = System.getProperty("loadtest.database", "h2");
+        String label = System.getProperty("loadtest.label", "run");
+        int clients = Integer.getInteger("loadtest.clients", 1000);
+        int users = Integer.getInteger("loadtest.users", 50);
+        int notesPerUser = Integer.getInteger("loadtest.notes-per-user", 20);
+        int seedConcurrency = Integer.getInteger("loadtest.seed-concurrency", 8);
+        long randomSeed = Long.getLong("loadtest.random-seed", 42);
+        OperationMix mix = OperationMix.parse(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+        Duration measurement = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+        Path reportPath = Path.of(System.getProperty("loadtest.report", "target/loadtest/" + label + ".json"));
+        String baseline = System.getProperty("loadtest.baseline");
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("target", remoteUrl != null ? remoteUrl : "embedded " + database);
+        config.put("clients", clients);
+        config.put("users", users);
+        config.put("notesPerUser", notesPerUser);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", measurement.toSeconds());
+        config.put("randomSeed", randomSeed);
+        config.put("mix", mix.toString());
+
+        EmbeddedServer server = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = remoteUrl;
+            if (baseUrl == null) {
+                System.out.printf("Starting the application against %s%n", database);
+                server = EmbeddedServer.start(database,
+                        System.getProperty("loadtest.database.username", "sa"),
+                        System.getProperty("loadtest.database.password", ""));
+                baseUrl = server.baseUrl();
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(executor)
+                    .build();
+            NoteLoadTest loadTest = new NoteLoadTest(client, baseUrl);
+
+            System.out.printf("Seeding %d users with %d notes each against %s%n", users, notesPerUser, baseUrl);
+            List<Account> accounts = loadTest.seed(executor, users, notesPerUser, seedConcurrency);
+
+            System.out.printf("Running %d clients (%s): %ds warmup, %ds measurement%n", clients, mix,
+                    warmup.toSeconds(), measurement.toSeconds());
+            Instant startedAt = Instant.now();
+            Map<Operation, LatencyStats> results = loadTest.run(executor, accounts, mix, clients, randomSeed,
+                    warmup, measurement);
+
+            LoadTestReport report = new LoadTestReport(label, startedAt, measurement, config, results);
+            report.print();
+            report.write(reportPath);
+            if (baseline != null) {
+                report.compare(Path.of(baseline));
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private List<Account> seed(ExecutorService executor, int users, int notesPerUser, int concurrency)
+            throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        // BCrypt dominates registration; too many at once would only be rejected by the hashing queue.
+        Semaphore permits = new Semaphore(concurrency);
+        List<Future<Account>> futures = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "loadtest-" + runId + "-" + i + "@do-it.dev";
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    post("/api/auth/register", null,
+                            "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}");
+                    String token = login(email);
+                    return new Account(email, token, createNotes(token, notesPerUser));
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<Account> accounts = new ArrayList<>();
+        for (Future<Account> future : futures) {
+            accounts.add(future.get());
+        }
+        return accounts;
+    }
+
+    private List<Long> createNotes(String token, int count) throws IOException, InterruptedException {
+        List<Long> noteIds = new ArrayList<>(count);
+        while (noteIds.size() < count) {
+            ObjectNode batch = MAPPER.createObjectNode();
+            ArrayNode operations = batch.putArray("operations");
+            for (int i = 0; i < Math.min(BATCH_SIZE, count - noteIds.size()); i++) {
+                operations.addObject()
+                        .put("type", "CREATE")
+                        .put("title", "Load test " + (noteIds.size() + i))
+                        .put("description", "Seeded by the load test");
+            }
+
+            int created = noteIds.size();
+            for (JsonNode result : post("/api/notes/batch", token, batch.toString()).path("data")) {
+                if (result.path("status").asInt() == 201) {
+                    noteIds.add(result.path("noteId").asLong());
+                }
+            }
+            if (noteIds.size() == created) {
+                throw new IllegalStateException("Seeding stopped after " + created + " notes; is notes.max-per-user lower?");
+            }
+        }
+        return noteIds;
+    }
+
+    private Map<Operation, LatencyStats> run(ExecutorService executor, List<Account> accounts, OperationMix mix,
+            int clients, long randomSeed, Duration warmup, Duration measurement) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + measurement.toNanos();
+
+        SplittableRandom seeds = new SplittableRandom(randomSeed);
+        List<Future<Map<Operation, LatencyStats>>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Account account = accounts.get(i % accounts.size());
+            SplittableRandom random = seeds.split();
+            futures.add(executor.submit(() -> runClient(account, mix, random, measureFrom, end)));
+        }
+
+        Map<Operation, LatencyStats> merged = newStats(mix);
+        for (Future<Map<Operation, LatencyStats>> future : futures) {
+            future.get().forEach((operation, stats) -> merged.get(operation).merge(stats));
+        }
+        return merged;
+    }
+
+    private Map<Operation, LatencyStats> runClient(Account account, OperationMix mix, SplittableRandom random,
+            long measureFrom, long end) {
+        Map<Operation, LatencyStats> stats = newStats(mix);
+        // Seeded notes are shared by every client of the account and never deleted, so reads and
+        // updates cannot race with deletes; deletes only remove notes this client created itself.
+        ArrayDeque<Long> created = new ArrayDeque<>();
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean measured = now >= measureFrom;
+            Long noteId = account.noteIds().get(random.nextInt(account.noteIds().size()));
+            Operation operation = mix.next(random);
+            if (operation == Operation.DELETE && created.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+
+            switch (operation) {
+                case LOGIN -> call(stats, measured, operation, () -> login(account.email()));
+                case LIST -> call(stats, measured, operation, () -> get("/api/notes/page?limit=20", account.token()));
+                case GET -> call(stats, measured, operation, () -> get("/api/notes/" + noteId, account.token()));
+                case CREATE -> call(stats, measured, operation, () -> {
+                    Long createdId = createNote(account.token());
+                    created.push(createdId);
+                    return createdId;
+                });
+                case UPDATE -> call(stats, measured, operation, () -> put("/api/notes/" + noteId, account.token(),
+                        "{\"title\":\"Updated " + random.nextInt() + "\",\"description\":\"Load test note\"}"));
+                case COMPLETE -> call(stats, measured, operation,
+                        () -> patch("/api/notes/" + noteId + "/complete", account.token()));
+                case DELETE -> {
+                    Long createdId = created.pop();
+                    call(stats, measured, operation, () -> delete("/api/notes/" + createdId, account.token()));
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static void call(Map<Operation, LatencyStats> stats, boolean measured, Operation operation,
+            Request request) {
+        long started = System.nanoTime();
+        String failure = null;
+        try {
+            request.send();
+        } catch (HttpStatusException e) {
+            failure = Integer.toString(e.status);
+        } catch (IOException | RuntimeException e) {
+            failure = "io";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!measured) {
+            return;
+        }
+        if (failure == null) {
+            stats.get(operation).record(System.nanoTime() - started);
+        } else {
+            stats.get(operation).recordError(failure);
+        }
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        JsonNode login = post("/api/auth/login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}");
+        return login.path("data").path("token").asText();
+    }
+
+    private Long createNote(String token) throws IOException, InterruptedException {
+        JsonNode created = post("/api/notes", token,
+                "{\"title\":\"Load test\",\"description\":\"Created by the load test\"}");
+        return created.path("data").path("id").asLong();
+    }
+
+    private JsonNode get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET().build());
+    }
+
+    private JsonNode post(String path, String token, String body) throws IOException, InterruptedException {
+        return send(request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build());
+    }
+
+    private JsonNode put(String path, String token, String body) throws IOException, InterruptedException {
+        return send(request(path, token).PUT(HttpRequest.BodyPublishers.ofString(body)).build());
+    }
+
+    private JsonNode patch(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private JsonNode delete(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).DELETE().build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new HttpStatusException(request, response.statusCode());
+        }
+        return response.body().isEmpty() ? MAPPER.nullNode() : MAPPER.readTree(response.body());
+    }
+
+    private static Map<Operation, LatencyStats> newStats(OperationMix mix) {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : mix.weights().keySet()) {
+            stats.put(operation, new LatencyStats());
+        }
+        if (stats.containsKey(Operation.DELETE)) {
+            stats.putIfAbsent(Operation.CREATE, new LatencyStats());
+        }
+        return stats;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        Object send() throws IOException, InterruptedException;
+    }
+
+    private static final class HttpStatusException extends IOException {
+
+        private final int status;
+
+        HttpStatusException(HttpRequest request, int status) {
+            super(request.method() + " " + request.uri() + " returned " + status);
+            this.status = status;
+        }
+    }
+}
\ No newline at end of file
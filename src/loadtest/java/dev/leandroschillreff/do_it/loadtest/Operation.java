@@ -0,0 +1,35 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The calls a simulated client makes. The lower-case name is the key used in loadtest.mix and in
+ * the JSON report.
+ */
+enum Operation {
+    LOGIN("POST /api/auth/login"),
+    LIST("GET /api/notes/page"),
+    GET("GET /api/notes/{id}"),
+    CREATE("POST /api/notes"),
+    UPDATE("PUT /api/notes/{id}"),
+    COMPLETE("PATCH /api/notes/{id}/complete"),
+    DELETE("DELETE /api/notes/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation ofKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+}
\ No newline at end of file
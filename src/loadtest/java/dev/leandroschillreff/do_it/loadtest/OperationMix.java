@@ -0,0 +1,80 @@
+package dev.leandroschillreff.do_it.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Relative weights of the operations, parsed from e.g. "login=2,list=20,get=40". Operations that
+ * are not listed get weight zero.
+ */
+final class OperationMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+    private final int total;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulative = new int[operations.length];
+
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        this.total = sum;
+    }
+
+    static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected operation=weight in loadtest.mix: " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in loadtest.mix: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(Operation.ofKey(entry.substring(0, separator)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation next(SplittableRandom random) {
+        int roll = random.nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Roll outside of the mix: " + roll);
+    }
+
+    Map<Operation, Integer> weights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder spec = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (!spec.isEmpty()) {
+                spec.append(',');
+            }
+            spec.append(operation.key()).append('=').append(weight);
+        });
+        return spec.toString();
+    }
+}
\ No newline at end of file
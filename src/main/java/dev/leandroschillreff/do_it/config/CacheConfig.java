@@ -0,0 +1,28 @@
+package dev.leandroschillreff.do_it.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String NOTE_CACHE = "notes";
+    public static final String NOTE_LIST_CACHE = "noteLists";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> noteCacheCustomizer(
+            @Value("${notes.cache.note-spec}") String noteSpec,
+            @Value("${notes.cache.note-list-spec}") String noteListSpec) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(NOTE_CACHE, Caffeine.from(noteSpec).build());
+            cacheManager.registerCustomCache(NOTE_LIST_CACHE, Caffeine.from(noteListSpec).build());
+        };
+    }
+}
\ No newline at end of file
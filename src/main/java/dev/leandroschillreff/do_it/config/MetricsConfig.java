@@ -0,0 +1,40 @@
+package dev.leandroschillreff.do_it.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Drops tags that would carry a value per user, so no instrumentation can add one series per
+     * account by mistake.
+     */
+    @Bean
+    public MeterFilter userTagFilter() {
+        return MeterFilter.ignoreTags("userId", "user", "email", "principal");
+    }
+
+    /**
+     * Repository timers are tagged with the method name; stop creating new series past the limit
+     * instead of growing without bound.
+     */
+    @Bean
+    public MeterFilter repositoryMethodTagLimit(
+            @Value("${metrics.repository.max-method-tags:200}") int maxMethodTags) {
+        return MeterFilter.maximumAllowableTags("spring.data.repository.invocations", "method", maxMethodTags,
+                MeterFilter.deny());
+    }
+
+    /**
+     * The per-request statement meters are tagged like http.server.requests and get the same limit.
+     */
+    @Bean
+    public MeterFilter requestStatementUriTagLimit(
+            @Value("${management.metrics.web.server.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("db.request", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package dev.leandroschillreff.do_it.config;
+
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import dev.leandroschillreff.do_it.event.NoteEventBroker;
+import dev.leandroschillreff.do_it.repository.NoteRepository;
+import dev.leandroschillreff.do_it.search.H2NoteSearchEngine;
+import dev.leandroschillreff.do_it.search.InMemoryNoteSearchEngine;
+import dev.leandroschillreff.do_it.search.NoteSearchEngine;
+import dev.leandroschillreff.do_it.search.PostgresNoteSearchEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+public class NoteSearchConfig {
+
+    /**
+     * Picks the in-memory engine when configured, otherwise the one matching the connected database.
+     * Depends on the entity manager factory so Hibernate has created the notes table before the engine
+     * is initialized against it.
+     */
+    @Bean
+    public NoteSearchEngine noteSearchEngine(DataSource dataSource, JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory, NoteRepository noteRepository,
+            NoteEventBroker noteEventBroker, MeterRegistry meterRegistry,
+            @Value("${notes.search.engine:database}") String engineType,
+            @Value("${notes.search.text-search-config:simple}") String textSearchConfig,
+            @Value("${notes.search.memory.max-users:10000}") long maxUsers,
+            @Value("${notes.search.memory.expire-after-idle:30m}") Duration expireAfterIdle)
+            throws MetaDataAccessException {
+        if ("memory".equals(engineType)) {
+            NoteSearchEngine engine = new InMemoryNoteSearchEngine(noteRepository, noteEventBroker, meterRegistry,
+                    maxUsers, expireAfterIdle);
+            engine.initialize();
+            return engine;
+        }
+
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        NoteSearchEngine engine = switch (database) {
+            case "PostgreSQL" -> new PostgresNoteSearchEngine(jdbcTemplate, textSearchConfig);
+            case "H2" -> new H2NoteSearchEngine(jdbcTemplate);
+            default -> throw new IllegalStateException("Full-text search is not supported on " + database);
+        };
+        engine.initialize();
+        return engine;
+    }
+}
\ No newline at end of file
@@ -1,15 +1,45 @@
 package dev.leandroschillreff.do_it.config;
 
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import dev.leandroschillreff.do_it.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class PasswordEncoderConfig {
 
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${password.hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${password.hashing.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${password.hashing.argon2.memory-kib:19456}") int argon2Memory,
+            @Value("${password.hashing.argon2.iterations:2}") int argon2Iterations,
+            @Value("${password.hashing.argon2.parallelism:1}") int argon2Parallelism,
+            @Value("${password.hashing.threads:0}") int threads,
+            @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password.hashing.max-wait:2s}") Duration maxWait) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2Memory, argon2Iterations));
+
+        // New hashes are prefixed with the algorithm id; hashes stored before the prefix existed are plain BCrypt.
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, maxWait, meterRegistry);
     }
 }
\ No newline at end of file
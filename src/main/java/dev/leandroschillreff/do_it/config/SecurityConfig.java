@@ -17,7 +17,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 
 import dev.leandroschillreff.do_it.security.JwtRequestFilter;
+import dev.leandroschillreff.do_it.security.LoginRateLimitFilter;
+import dev.leandroschillreff.do_it.security.PrometheusScrapeMatcher;
+import dev.leandroschillreff.do_it.security.UserRateLimitFilter;
 import dev.leandroschillreff.do_it.service.UserService;
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -26,11 +30,19 @@ public class SecurityConfig {
 
     private final UserService userService;
     private final JwtRequestFilter jwtRequestFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
+    private final UserRateLimitFilter userRateLimitFilter;
+    private final PrometheusScrapeMatcher prometheusScrapeMatcher;
     private final PasswordEncoder passwordEncoder;
 
-    public SecurityConfig(UserService userService, JwtRequestFilter jwtRequestFilter, PasswordEncoder passwordEncoder) {
+    public SecurityConfig(UserService userService, JwtRequestFilter jwtRequestFilter,
+            LoginRateLimitFilter loginRateLimitFilter, UserRateLimitFilter userRateLimitFilter,
+            PrometheusScrapeMatcher prometheusScrapeMatcher, PasswordEncoder passwordEncoder) {
         this.userService = userService;
         this.jwtRequestFilter = jwtRequestFilter;
+        this.loginRateLimitFilter = loginRateLimitFilter;
+        this.userRateLimitFilter = userRateLimitFilter;
+        this.prometheusScrapeMatcher = prometheusScrapeMatcher;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -47,12 +59,17 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui.html", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(prometheusScrapeMatcher).permitAll()
                         .anyRequest().authenticated());
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(loginRateLimitFilter, JwtRequestFilter.class);
+        http.addFilterAfter(userRateLimitFilter, JwtRequestFilter.class);
 
         return http.build();
     }
@@ -63,6 +80,7 @@ public class SecurityConfig {
 
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userService);
 
         return authProvider;
     }
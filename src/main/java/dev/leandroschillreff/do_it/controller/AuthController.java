@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import dev.leandroschillreff.do_it.dto.LoginDTO;
+import dev.leandroschillreff.do_it.dto.RefreshTokenDTO;
 import dev.leandroschillreff.do_it.dto.UserDTO;
 import dev.leandroschillreff.do_it.dto.UserResponseDTO;
 import dev.leandroschillreff.do_it.service.AuthService;
@@ -45,6 +46,25 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchanges a refresh token for a new access token and a new refresh token", responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens refreshed", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token is invalid, expired or was already used")
+    })
+    public ResponseEntity<Map<String, Object>> refresh(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        Map<String, Object> response = authService.refresh(refreshTokenDTO);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the refresh token and every token rotated from the same login", responses = {
+            @ApiResponse(responseCode = "204", description = "Refresh token revoked")
+    })
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        authService.logout(refreshTokenDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Creates a new user with the provided data", responses = {
             @ApiResponse(responseCode = "201", description = "User successfully created", content = @Content(schema = @Schema(implementation = UserResponseDTO.class))),
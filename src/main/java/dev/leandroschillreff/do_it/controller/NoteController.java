@@ -1,9 +1,15 @@
 package dev.leandroschillreff.do_it.controller;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +18,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import dev.leandroschillreff.do_it.dto.NoteBatchRequestDTO;
+import dev.leandroschillreff.do_it.dto.NoteBatchResultDTO;
+import dev.leandroschillreff.do_it.dto.NoteChangesDTO;
 import dev.leandroschillreff.do_it.dto.NoteDTO;
+import dev.leandroschillreff.do_it.dto.NotePageDTO;
 import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+import dev.leandroschillreff.do_it.dto.NoteSearchResultDTO;
+import dev.leandroschillreff.do_it.event.NoteEventHub;
 import dev.leandroschillreff.do_it.service.AuthService;
 import dev.leandroschillreff.do_it.service.NoteService;
 import dev.leandroschillreff.do_it.util.ApiResponseBuilder;
+import dev.leandroschillreff.do_it.util.NoteFreshness;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -27,6 +45,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -37,39 +56,137 @@ public class NoteController {
 
         private final NoteService noteService;
         private final AuthService authService;
+        private final NoteEventHub noteEventHub;
 
-        public NoteController(NoteService noteService, AuthService authService) {
+        public NoteController(NoteService noteService, AuthService authService, NoteEventHub noteEventHub) {
                 this.noteService = noteService;
                 this.authService = authService;
+                this.noteEventHub = noteEventHub;
         }
 
         @GetMapping
         @Operation(summary = "Get all notes", description = "Returns all notes of the authenticated user", responses = {
-                        @ApiResponse(responseCode = "200", description = "Notes retrieved successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = NoteDTO.class))))
+                        @ApiResponse(responseCode = "200", description = "Notes retrieved successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = NoteDTO.class)))),
+                        @ApiResponse(responseCode = "304", description = "Notes not modified since the given ETag or date")
         })
-        public ResponseEntity<Map<String, Object>> getAllNotes() {
+        public ResponseEntity<Map<String, Object>> getAllNotes(WebRequest webRequest) {
                 Long userId = authService.getCurrentUserId();
-                List<NoteResponseDTO> notes = noteService.getAllNotesByUserId(userId);
+                NoteFreshness freshness = noteService.getCollectionFreshness(userId);
+                if (webRequest.checkNotModified(freshness.eTag())) {
+                        return null;
+                }
+
+                List<NoteResponseDTO> notes = noteService.getAllNotesByUserId(userId, freshness);
+
                 Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
                                 200,
                                 "Notes retrieved successfully",
                                 notes);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
+        }
+
+        @GetMapping("/page")
+        @Operation(summary = "Get a page of notes", description = "Returns notes of the authenticated user ordered by creation time, using cursor-based pagination", responses = {
+                        @ApiResponse(responseCode = "200", description = "Notes retrieved successfully", content = @Content(schema = @Schema(implementation = NotePageDTO.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+        })
+        public ResponseEntity<Map<String, Object>> getNotesPage(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "50") int limit,
+                        @RequestParam(required = false) Boolean completed,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+                Long userId = authService.getCurrentUserId();
+                NotePageDTO page = noteService.getNotesPage(userId, cursor, limit, completed, updatedSince);
+                Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
+                                200,
+                                "Notes retrieved successfully",
+                                page);
+                return ResponseEntity.ok(response);
+        }
+
+        @GetMapping("/search")
+        @Operation(summary = "Search notes", description = "Returns notes of the authenticated user whose title or description match the query, most relevant first, using offset pagination", responses = {
+                        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully", content = @Content(schema = @Schema(implementation = NoteSearchResultDTO.class)))
+        })
+        public ResponseEntity<Map<String, Object>> searchNotes(
+                        @RequestParam String q,
+                        @RequestParam(defaultValue = "20") int limit,
+                        @RequestParam(defaultValue = "0") int offset) {
+                Long userId = authService.getCurrentUserId();
+                NoteSearchResultDTO results = noteService.searchNotes(userId, q, limit, offset);
+                Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
+                                200,
+                                "Search results retrieved successfully",
+                                results);
+                return ResponseEntity.ok(response);
+        }
+
+        @GetMapping("/changes")
+        @Operation(summary = "Get note changes", description = "Returns notes created or updated and ids of notes deleted after the given sync token, in change order", responses = {
+                        @ApiResponse(responseCode = "200", description = "Changes retrieved successfully", content = @Content(schema = @Schema(implementation = NoteChangesDTO.class))),
+                        @ApiResponse(responseCode = "410", description = "Sync token older than the retained deletions; sync again from 0")
+        })
+        public ResponseEntity<Map<String, Object>> getChanges(
+                        @RequestParam(defaultValue = "0") long since,
+                        @RequestParam(defaultValue = "100") int limit) {
+                Long userId = authService.getCurrentUserId();
+                NoteChangesDTO changes = noteService.getChanges(userId, since, limit);
+                Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
+                                200,
+                                "Changes retrieved successfully",
+                                changes);
                 return ResponseEntity.ok(response);
         }
 
+        @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(summary = "Subscribe to note events", description = "Pushes created, updated, completed, uncompleted and deleted note events of the authenticated user as Server-Sent Events. Each event's id and changeSeq are the change sequence of its write, so a client can skip events older than the note it holds. A resync event means events were dropped and the client should read GET /api/notes/changes", responses = {
+                        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+                        @ApiResponse(responseCode = "429", description = "Too many open event streams")
+        })
+        public SseEmitter streamEvents() {
+                Long userId = authService.getCurrentUserId();
+                return noteEventHub.subscribe(userId);
+        }
+
+        @GetMapping(value = "/export", produces = "application/x-ndjson")
+        @Operation(summary = "Export all notes", description = "Streams every note of the authenticated user as newline-delimited JSON", responses = {
+                        @ApiResponse(responseCode = "200", description = "Notes exported successfully", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = NoteResponseDTO.class)))
+        })
+        public void exportNotes(HttpServletResponse response) throws IOException {
+                Long userId = authService.getCurrentUserId();
+                response.setStatus(HttpStatus.OK.value());
+                response.setContentType("application/x-ndjson");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"");
+                noteService.exportNotes(userId, response.getOutputStream());
+        }
+
         @GetMapping("/{noteId}")
         @Operation(summary = "Get note by ID", description = "Returns the details of a specific note", responses = {
                         @ApiResponse(responseCode = "200", description = "Note retrieved successfully", content = @Content(schema = @Schema(implementation = NoteDTO.class))),
+                        @ApiResponse(responseCode = "304", description = "Note not modified since the given ETag or date"),
                         @ApiResponse(responseCode = "404", description = "Note not found")
         })
-        public ResponseEntity<Map<String, Object>> getNoteById(@PathVariable Long noteId) {
+        public ResponseEntity<Map<String, Object>> getNoteById(@PathVariable Long noteId,
+                        ServletWebRequest webRequest) {
                 Long userId = authService.getCurrentUserId();
-                NoteResponseDTO note = noteService.getNoteById(noteId, userId);
+                NoteFreshness freshness = noteService.getNoteFreshness(noteId, userId);
+                if (webRequest.checkNotModified(freshness.eTag(), freshness.lastModified())) {
+                        return null;
+                }
+
+                NoteResponseDTO note = noteService.getNoteById(noteId, userId, freshness);
+                NoteFreshness sent = NoteFreshness.ofNote(note);
+                if (!sent.equals(freshness)) {
+                        // A write landed between the version lookup and the load; describe the body actually sent.
+                        webRequest.getResponse().setHeader(HttpHeaders.ETAG, sent.eTag());
+                        webRequest.getResponse().setDateHeader(HttpHeaders.LAST_MODIFIED, sent.lastModified());
+                }
+
                 Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
                                 200,
                                 "Note retrieved successfully",
                                 note);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(response);
         }
 
         @PostMapping
@@ -87,23 +204,41 @@ public class NoteController {
                 return new ResponseEntity<>(response, HttpStatus.CREATED);
         }
 
+        @PostMapping("/batch")
+        @Operation(summary = "Run a batch of note operations", description = "Creates, updates, completes, uncompletes and deletes notes in a single transaction and reports the outcome of each operation", responses = {
+                        @ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(array = @ArraySchema(schema = @Schema(implementation = NoteBatchResultDTO.class)))),
+                        @ApiResponse(responseCode = "400", description = "Invalid input")
+        })
+        public ResponseEntity<Map<String, Object>> executeBatch(@Valid @RequestBody NoteBatchRequestDTO batchDTO) {
+                Long userId = authService.getCurrentUserId();
+                List<NoteBatchResultDTO> results = noteService.executeBatch(batchDTO.getOperations(), userId);
+                Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
+                                200,
+                                "Batch processed successfully",
+                                results);
+                return ResponseEntity.ok(response);
+        }
+
         @PutMapping("/{noteId}")
         @Operation(summary = "Update a note", description = "Updates an existing note", responses = {
                         @ApiResponse(responseCode = "200", description = "Note updated successfully", content = @Content(schema = @Schema(implementation = NoteDTO.class))),
                         @ApiResponse(responseCode = "400", description = "Invalid input"),
                         @ApiResponse(responseCode = "403", description = "Unauthorized access"),
-                        @ApiResponse(responseCode = "404", description = "Note not found")
+                        @ApiResponse(responseCode = "404", description = "Note not found"),
+                        @ApiResponse(responseCode = "412", description = "If-Match does not match the current note version")
         })
         public ResponseEntity<Map<String, Object>> updateNote(
                         @PathVariable Long noteId,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                         @Valid @RequestBody NoteDTO noteDTO) {
                 Long userId = authService.getCurrentUserId();
-                NoteResponseDTO updatedNote = noteService.updateNote(noteId, noteDTO, userId);
+                NoteResponseDTO updatedNote = noteService.updateNote(noteId, noteDTO, userId,
+                                NoteFreshness.expectedVersion(noteId, ifMatch));
                 Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
                                 200,
                                 "Note updated successfully",
                                 updatedNote);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(NoteFreshness.noteETag(noteId, updatedNote.getVersion())).body(response);
         }
 
         @DeleteMapping("/{noteId}")
@@ -120,25 +255,31 @@ public class NoteController {
 
         @PatchMapping("/{noteId}/complete")
         @Operation(summary = "Mark note as completed", description = "Marks the note as completed and sets the completion timestamp")
-        public ResponseEntity<Map<String, Object>> completeNote(@PathVariable Long noteId) {
+        public ResponseEntity<Map<String, Object>> completeNote(
+                        @PathVariable Long noteId,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
                 Long userId = authService.getCurrentUserId();
-                NoteResponseDTO updatedNote = noteService.completeNote(noteId, userId);
+                NoteResponseDTO updatedNote = noteService.completeNote(noteId, userId,
+                                NoteFreshness.expectedVersion(noteId, ifMatch));
                 Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
                                 200,
                                 "Note marked as completed",
                                 updatedNote);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(NoteFreshness.noteETag(noteId, updatedNote.getVersion())).body(response);
         }
 
         @PatchMapping("/{noteId}/uncomplete")
         @Operation(summary = "Unmark note as completed", description = "Unmarks the note as completed and removes the completion timestamp")
-        public ResponseEntity<Map<String, Object>> uncompleteNote(@PathVariable Long noteId) {
+        public ResponseEntity<Map<String, Object>> uncompleteNote(
+                        @PathVariable Long noteId,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
                 Long userId = authService.getCurrentUserId();
-                NoteResponseDTO updatedNote = noteService.uncompleteNote(noteId, userId);
+                NoteResponseDTO updatedNote = noteService.uncompleteNote(noteId, userId,
+                                NoteFreshness.expectedVersion(noteId, ifMatch));
                 Map<String, Object> response = ApiResponseBuilder.buildSuccessResponse(
                                 200,
                                 "Note unmarked as completed",
                                 updatedNote);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(NoteFreshness.noteETag(noteId, updatedNote.getVersion())).body(response);
         }
 }
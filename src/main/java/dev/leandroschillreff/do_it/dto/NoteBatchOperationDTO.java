@@ -0,0 +1,23 @@
+package dev.leandroschillreff.do_it.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteBatchOperationDTO {
+    @NotNull(message = "Operation type cannot be null")
+    private NoteBatchOperationType type;
+
+    private Long noteId;
+
+    private String title;
+
+    private String description;
+
+    // Optional expected version, checked like If-Match on the single-note endpoints.
+    private Long version;
+}
\ No newline at end of file
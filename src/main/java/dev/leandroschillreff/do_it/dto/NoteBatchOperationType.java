@@ -0,0 +1,9 @@
+package dev.leandroschillreff.do_it.dto;
+
+public enum NoteBatchOperationType {
+    CREATE,
+    UPDATE,
+    COMPLETE,
+    UNCOMPLETE,
+    DELETE
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package dev.leandroschillreff.do_it.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteBatchRequestDTO {
+    @NotEmpty(message = "Operations cannot be empty")
+    @Size(max = 500, message = "A batch cannot contain more than 500 operations")
+    private List<@Valid NoteBatchOperationDTO> operations;
+}
\ No newline at end of file
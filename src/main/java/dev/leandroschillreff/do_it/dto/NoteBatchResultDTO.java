@@ -0,0 +1,17 @@
+package dev.leandroschillreff.do_it.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteBatchResultDTO {
+    private int index;
+    private NoteBatchOperationType type;
+    private Long noteId;
+    private int status;
+    private String message;
+    private NoteResponseDTO note;
+}
\ No newline at end of file
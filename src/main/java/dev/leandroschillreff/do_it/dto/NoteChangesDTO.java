@@ -0,0 +1,17 @@
+package dev.leandroschillreff.do_it.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteChangesDTO {
+    private List<NoteResponseDTO> notes;
+    private List<Long> deletedNoteIds;
+    private long syncToken;
+    private boolean hasMore;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package dev.leandroschillreff.do_it.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotePageDTO {
+    private List<NoteResponseDTO> notes;
+    private String nextCursor;
+    private boolean hasMore;
+}
\ No newline at end of file
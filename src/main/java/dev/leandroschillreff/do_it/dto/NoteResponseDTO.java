@@ -1,5 +1,6 @@
 package dev.leandroschillreff.do_it.dto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import lombok.AllArgsConstructor;
@@ -9,7 +10,10 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class NoteResponseDTO {
+public class NoteResponseDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private Long id;
     private String title;
     private String description;
@@ -17,4 +21,5 @@ public class NoteResponseDTO {
     private LocalDateTime completedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package dev.leandroschillreff.do_it.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchResultDTO {
+    private List<NoteResponseDTO> notes;
+    private Integer nextOffset;
+    private boolean hasMore;
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package dev.leandroschillreff.do_it.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDTO {
+    @NotBlank(message = "Refresh token cannot be blank")
+    private String refreshToken;
+}
\ No newline at end of file
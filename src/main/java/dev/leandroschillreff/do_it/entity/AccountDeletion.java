@@ -0,0 +1,40 @@
+package dev.leandroschillreff.do_it.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one account purge. A row stays pending until {@code completedAt} is set, so a purge
+ * interrupted by a restart resumes on the next run; {@code claimedUntil} is the lease of the node
+ * currently working on it.
+ */
+@Entity
+@Table(name = "account_deletions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDeletion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(name = "notes_deleted", nullable = false)
+    private long notesDeleted;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
\ No newline at end of file
@@ -3,23 +3,32 @@ package dev.leandroschillreff.do_it.entity;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notes_user_id_modified", columnList = "user_id, id, created_at, updated_at, version"),
+        @Index(name = "idx_notes_user_change_seq", columnList = "user_id, change_seq")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +37,8 @@ public class Note implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_id_generator")
+    @SequenceGenerator(name = "notes_id_generator", sequenceName = "notes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -43,6 +53,16 @@ public class Note implements Serializable {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Drawn from the sequence shared with NoteTombstone by NoteService on every write, so it orders the change feed.
+    @Column(name = "change_seq")
+    @ColumnDefault(NoteTombstone.CHANGE_SEQ_NEXTVAL)
+    private Long changeSeq;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,34 @@
+package dev.leandroschillreff.do_it.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row holding the highest change sequence whose tombstone has been pruned. A sync token below
+ * it may have missed deletions, so the change feed refuses it.
+ */
+@Entity
+@Table(name = "note_sync_horizon")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSyncHorizon {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "pruned_through_seq", nullable = false)
+    private long prunedThroughSeq;
+
+    @Column(name = "pruned_at", nullable = false)
+    private LocalDateTime prunedAt;
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package dev.leandroschillreff.do_it.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "note_tombstones", indexes = {
+        @Index(name = "idx_note_tombstones_user_change_seq", columnList = "user_id, change_seq"),
+        @Index(name = "idx_note_tombstones_deleted_at", columnList = "deleted_at, change_seq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteTombstone {
+
+    public static final String CHANGE_SEQ = "note_change_seq";
+    public static final String CHANGE_SEQ_NEXTVAL = "nextval('" + CHANGE_SEQ + "')";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_change_generator")
+    @SequenceGenerator(name = "note_change_generator", sequenceName = CHANGE_SEQ, allocationSize = 1)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
\ No newline at end of file
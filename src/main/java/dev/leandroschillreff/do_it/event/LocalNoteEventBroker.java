@@ -0,0 +1,25 @@
+package dev.leandroschillreff.do_it.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "notes.events.broker", havingValue = "local", matchIfMissing = true)
+public class LocalNoteEventBroker implements NoteEventBroker {
+
+    private final List<Consumer<NoteEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(NoteEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<NoteEvent> listener) {
+        listeners.add(listener);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package dev.leandroschillreff.do_it.event;
+
+import java.io.Serializable;
+
+import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+
+/**
+ * A committed note change. {@code changeSeq} is the change feed position of the write, so consumers can
+ * tell which of two events for the same note is newer when they arrive out of order.
+ */
+public record NoteEvent(Long userId, NoteEventType type, Long noteId, long changeSeq, NoteResponseDTO note)
+        implements Serializable {
+
+    public static NoteEvent of(NoteEventType type, Long userId, long changeSeq, NoteResponseDTO note) {
+        return new NoteEvent(userId, type, note.getId(), changeSeq, note);
+    }
+
+    public static NoteEvent deleted(Long userId, Long noteId, long changeSeq) {
+        return new NoteEvent(userId, NoteEventType.DELETED, noteId, changeSeq, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package dev.leandroschillreff.do_it.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Fans committed note events out to every application node. Implementations must deliver each
+ * published event to the listeners of all nodes, including the publishing one.
+ */
+public interface NoteEventBroker {
+
+    void publish(NoteEvent event);
+
+    void subscribe(Consumer<NoteEvent> listener);
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package dev.leandroschillreff.do_it.event;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import dev.leandroschillreff.do_it.exception.TooManySubscriptionsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class NoteEventHub {
+
+    private final ConcurrentMap<Long, Set<NoteEventSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Executor executor;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter droppedEvents;
+    private final int bufferSize;
+    private final int maxSubscriptionsPerUser;
+    private final long timeoutMillis;
+
+    public NoteEventHub(NoteEventBroker broker, MeterRegistry meterRegistry,
+            @Qualifier("applicationTaskExecutor") Executor executor,
+            @Value("${notes.events.buffer-size:256}") int bufferSize,
+            @Value("${notes.events.max-subscriptions-per-user:5}") int maxSubscriptionsPerUser,
+            @Value("${notes.events.timeout:30m}") Duration timeout,
+            @Value("${notes.events.heartbeat-interval:25s}") Duration heartbeatInterval) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+        this.timeoutMillis = timeout.toMillis();
+        this.droppedEvents = meterRegistry.counter("notes.events.dropped");
+        meterRegistry.gauge("notes.events.subscribers", subscriberCount);
+
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "note-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+
+        broker.subscribe(this::dispatch);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        NoteEventSubscriber subscriber = new NoteEventSubscriber(userId, emitter, bufferSize);
+
+        subscribers.compute(userId, (id, current) -> {
+            Set<NoteEventSubscriber> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+            if (set.size() >= maxSubscriptionsPerUser) {
+                throw new TooManySubscriptionsException(
+                        "Too many open event streams. Close one before opening another.");
+            }
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    private void dispatch(NoteEvent event) {
+        Set<NoteEventSubscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null) {
+            return;
+        }
+        userSubscribers.forEach(subscriber -> offer(subscriber, NoteEventSubscriber.toSseEvent(event)));
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> offer(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void offer(NoteEventSubscriber subscriber, SseEmitter.SseEventBuilder event) {
+        NoteEventSubscriber.Offer offer = subscriber.offer(event);
+        if (offer.dropped()) {
+            droppedEvents.increment();
+        }
+        if (!offer.needsDrain()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                if (!subscriber.drain()) {
+                    remove(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.close();
+            remove(subscriber);
+        }
+    }
+
+    private void remove(NoteEventSubscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.userId(), (id, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            subscriber.close();
+            try {
+                subscriber.emitter().complete();
+            } catch (IllegalStateException e) {
+                // The container already released the response.
+            }
+        }));
+        subscribers.clear();
+    }
+}
\ No newline at end of file
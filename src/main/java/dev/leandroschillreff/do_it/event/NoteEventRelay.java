@@ -0,0 +1,20 @@
+package dev.leandroschillreff.do_it.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class NoteEventRelay {
+
+    private final NoteEventBroker broker;
+
+    public NoteEventRelay(NoteEventBroker broker) {
+        this.broker = broker;
+    }
+
+    // Runs after commit so subscribers never see a change that was rolled back.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void relay(NoteEvent event) {
+        broker.publish(event);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package dev.leandroschillreff.do_it.event;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One open event stream. Events are buffered up to a fixed capacity and written by a single drain task
+ * at a time, so a slow client never blocks the publisher; when the buffer is full the oldest event is
+ * dropped and the client is told to resynchronize through the change feed.
+ */
+class NoteEventSubscriber {
+
+    static final String RESYNC_EVENT = "resync";
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+    private boolean draining;
+    private boolean overflowed;
+    private boolean closed;
+
+    NoteEventSubscriber(Long userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    // The id is the change sequence of the write, which the payload carries too.
+    static SseEmitter.SseEventBuilder toSseEvent(NoteEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.changeSeq()))
+                .name(event.type().name().toLowerCase(Locale.ROOT))
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Buffers an event and tells the caller whether it must schedule {@link #drain()} and whether an older
+     * event was dropped to make room.
+     */
+    Offer offer(SseEmitter.SseEventBuilder event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return Offer.CLOSED;
+            }
+
+            boolean dropped = false;
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                overflowed = true;
+                dropped = true;
+            }
+            buffer.addLast(event);
+
+            if (draining) {
+                return dropped ? Offer.DROPPED : Offer.QUEUED;
+            }
+            draining = true;
+            return dropped ? Offer.DROPPED_SCHEDULE : Offer.SCHEDULE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes buffered events until the buffer is empty. Returns false once the connection is unusable.
+     */
+    boolean drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            lock.lock();
+            try {
+                if (closed) {
+                    draining = false;
+                    return false;
+                }
+                if (overflowed) {
+                    overflowed = false;
+                    next = SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON);
+                } else {
+                    next = buffer.pollFirst();
+                }
+                if (next == null) {
+                    draining = false;
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                emitter.send(next);
+            } catch (IOException | IllegalStateException e) {
+                // The container reports the broken connection through the emitter callbacks.
+                close();
+                return false;
+            }
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            buffer.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    enum Offer {
+        SCHEDULE,
+        DROPPED_SCHEDULE,
+        QUEUED,
+        DROPPED,
+        CLOSED;
+
+        boolean needsDrain() {
+            return this == SCHEDULE || this == DROPPED_SCHEDULE;
+        }
+
+        boolean dropped() {
+            return this == DROPPED || this == DROPPED_SCHEDULE;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package dev.leandroschillreff.do_it.event;
+
+public enum NoteEventType {
+    CREATED,
+    UPDATED,
+    COMPLETED,
+    UNCOMPLETED,
+    DELETED
+}
\ No newline at end of file
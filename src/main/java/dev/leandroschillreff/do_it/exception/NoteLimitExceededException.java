@@ -0,0 +1,11 @@
+package dev.leandroschillreff.do_it.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class NoteLimitExceededException extends RuntimeException {
+    public NoteLimitExceededException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
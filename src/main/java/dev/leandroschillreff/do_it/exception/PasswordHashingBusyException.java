@@ -0,0 +1,19 @@
+package dev.leandroschillreff.do_it.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+/**
+ * Thrown when a request ran more SQL statements than its budget allows and query-stats.budget.mode is
+ * "fail". Thrown before the body is written it becomes a 500 response; thrown after a bodiless response
+ * was committed it only reaches MockMvc or the server log.
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts and times the statements run on connections of the wrapped DataSource for the current
+ * request, so Hibernate and JdbcTemplate queries are measured alike. A prepared statement counts once
+ * when it is prepared, however many times it executes or how many rows it batches; a plain statement
+ * counts once per SQL string it runs.
+ */
+final class QueryCountingDataSource extends DelegatingDataSource {
+
+    QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(proxy, connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> countingStatement(PreparedStatement.class, (PreparedStatement) result,
+                        (String) args[0]);
+                case "prepareCall" -> countingStatement(CallableStatement.class, (CallableStatement) result,
+                        (String) args[0]);
+                case "createStatement" -> countingStatement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    private static <T extends Statement> T countingStatement(Class<T> type, T statement, String preparedSql) {
+        if (preparedSql != null) {
+            recordStatement(preparedSql);
+        }
+        return proxy(type, (proxy, method, args) -> {
+            if (preparedSql == null && args != null && args.length > 0 && args[0] instanceof String sql
+                    && (method.getName().startsWith("execute") || method.getName().equals("addBatch"))) {
+                recordStatement(sql);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(proxy, statement, method, args);
+            }
+
+            long started = System.nanoTime();
+            try {
+                return invoke(proxy, statement, method, args);
+            } finally {
+                RequestQueryStats stats = RequestQueryStats.current();
+                if (stats != null) {
+                    stats.recordExecution(System.nanoTime() - started);
+                }
+            }
+        });
+    }
+
+    private static void recordStatement(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                handler);
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
\ No newline at end of file
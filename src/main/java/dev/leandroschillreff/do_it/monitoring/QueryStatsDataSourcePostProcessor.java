@@ -0,0 +1,23 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps every DataSource bean in a {@link QueryCountingDataSource}. Pool metrics and health checks
+ * still reach the pool, since the wrapper unwraps to it.
+ */
+@Component
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+            return new QueryCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
\ No newline at end of file
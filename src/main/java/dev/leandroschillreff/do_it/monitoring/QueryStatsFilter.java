@@ -0,0 +1,222 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request runs and checks them against per-endpoint budgets. Runs
+ * ahead of the security filters so statements issued while authenticating are included. Endpoints
+ * are keyed by method and route template, e.g. "GET /api/notes/{noteId}". Requests that go async,
+ * such as the SSE event stream, are left out: their work continues on other threads after this
+ * filter returns.
+ *
+ * <p>In fail mode a response with a body is checked by {@link QueryStatsResponseAdvice} before the
+ * body is written, so a breach becomes a 500 instead of a committed 200. Responses without a body are
+ * checked once the chain returns, when a committed response can no longer change.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String BUDGET_FAILED_ATTRIBUTE = QueryStatsFilter.class.getName() + ".BUDGET_FAILED";
+
+    enum BudgetMode {
+        OFF, WARN, FAIL
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaders;
+    private final BudgetMode budgetMode;
+    private final Map<String, Integer> budgets;
+    private final int defaultBudget;
+    private final int repeatedStatementThreshold;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry,
+            @Value("${query-stats.response-headers:false}") boolean responseHeaders,
+            @Value("${query-stats.budget.mode:warn}") String budgetMode,
+            @Value("${query-stats.budget.endpoints:}") String budgets,
+            @Value("${query-stats.budget.default:-1}") int defaultBudget,
+            @Value("${query-stats.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeaders = responseHeaders;
+        this.budgetMode = BudgetMode.valueOf(budgetMode.trim().toUpperCase(Locale.ROOT));
+        this.budgets = parseBudgets(budgets);
+        this.defaultBudget = defaultBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+        }
+
+        if (request.isAsyncStarted()) {
+            return;
+        }
+
+        // Responses with a body got the headers from QueryStatsResponseAdvice before it was written.
+        if (responseHeaders && !response.isCommitted()) {
+            writeHeaders(response::setHeader, stats);
+        }
+
+        String uri = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = endpoint(request, uri);
+        Tags tags = tags(request, uri);
+
+        DistributionSummary.builder("db.request.statements")
+                .description("SQL statements prepared per request")
+                .tags(tags)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 25, 50, 100)
+                .register(meterRegistry)
+                .record(stats.statements());
+        Timer.builder("db.request.time")
+                .description("JDBC execution time per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.executionNanos(), TimeUnit.NANOSECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug("{} ran {} statements in {} ms", endpoint, stats.statements(),
+                    String.format(Locale.ROOT, "%.2f", stats.executionMillis()));
+        }
+
+        if (budgetMode != BudgetMode.OFF) {
+            checkRepeatedStatements(endpoint, tags, stats);
+            if (uri != null && request.getAttribute(BUDGET_FAILED_ATTRIBUTE) == null) {
+                checkBudget(endpoint, tags, stats);
+            }
+        }
+    }
+
+    /**
+     * Fails the request if it is already over budget, while its body can still be replaced by an error
+     * response. The error response that follows is not checked again.
+     */
+    void checkBudgetBeforeBody(HttpServletRequest request, RequestQueryStats stats) {
+        String uri = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (budgetMode != BudgetMode.FAIL || uri == null || request.getAttribute(BUDGET_FAILED_ATTRIBUTE) != null) {
+            return;
+        }
+        try {
+            checkBudget(endpoint(request, uri), tags(request, uri), stats);
+        } catch (QueryBudgetExceededException e) {
+            request.setAttribute(BUDGET_FAILED_ATTRIBUTE, Boolean.TRUE);
+            throw e;
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request, String uri) {
+        return (uri != null ? request.getMethod() : UNKNOWN) + " " + (uri != null ? uri : UNKNOWN);
+    }
+
+    private static Tags tags(HttpServletRequest request, String uri) {
+        return Tags.of("method", uri != null ? request.getMethod() : UNKNOWN, "uri", uri != null ? uri : UNKNOWN);
+    }
+
+    static void writeHeaders(BiConsumer<String, String> setHeader, RequestQueryStats stats) {
+        setHeader.accept(QUERY_COUNT_HEADER, Integer.toString(stats.statements()));
+        setHeader.accept(SERVER_TIMING_HEADER,
+                String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements\"", stats.executionMillis(),
+                        stats.statements()));
+    }
+
+    private void checkRepeatedStatements(String endpoint, Tags tags, RequestQueryStats stats) {
+        if (repeatedStatementThreshold <= 0) {
+            return;
+        }
+        for (Map.Entry<String, Integer> repeated : stats.repeatedStatements(repeatedStatementThreshold)) {
+            if (!isEntityQuery(repeated.getKey())) {
+                continue;
+            }
+            Counter.builder("db.request.repeated_statements").tags(tags).register(meterRegistry).increment();
+            log.warn("{} ran the same statement {} times, likely an N+1 select: {}", endpoint, repeated.getValue(),
+                    repeated.getKey());
+        }
+    }
+
+    /**
+     * Repeated inserts and updates are batched writes and repeated sequence calls are id allocation;
+     * only repeated selects point at lazy loading.
+     */
+    private static boolean isEntityQuery(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") && !statement.contains("next value for")
+                && !statement.contains("nextval(");
+    }
+
+    private void checkBudget(String endpoint, Tags tags, RequestQueryStats stats) {
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (budget < 0 || stats.statements() <= budget) {
+            return;
+        }
+
+        Counter.builder("db.request.budget_exceeded").tags(tags).register(meterRegistry).increment();
+        StringBuilder message = new StringBuilder()
+                .append(endpoint).append(" ran ").append(stats.statements())
+                .append(" SQL statements, over its budget of ").append(budget);
+        List<Map.Entry<String, Integer>> repeated = stats.repeatedStatements(2);
+        if (!repeated.isEmpty()) {
+            message.append("; most repeated (").append(repeated.get(0).getValue()).append("x): ")
+                    .append(repeated.get(0).getKey());
+        }
+
+        if (budgetMode == BudgetMode.FAIL) {
+            log.error(message.toString());
+            throw new QueryBudgetExceededException(message.toString());
+        }
+        log.warn(message.toString());
+    }
+
+    private static Map<String, Integer> parseBudgets(String spec) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(
+                        "Expected \"METHOD /path=statements\" in query-stats.budget.endpoints: " + entry);
+            }
+            String endpoint = entry.substring(0, separator).trim().replaceAll("\\s+", " ");
+            budgets.put(endpoint, Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return budgets;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sets the query count headers and, in fail mode, checks the query budget just before a response body
+ * is written, since a large body commits the response before {@link QueryStatsFilter} gets control
+ * back.
+ */
+@ControllerAdvice
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryStatsFilter queryStatsFilter;
+    private final boolean responseHeaders;
+
+    public QueryStatsResponseAdvice(QueryStatsFilter queryStatsFilter,
+            @Value("${query-stats.response-headers:false}") boolean responseHeaders) {
+        this.queryStatsFilter = queryStatsFilter;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null) {
+            return body;
+        }
+        if (responseHeaders) {
+            QueryStatsFilter.writeHeaders(response.getHeaders()::set, stats);
+        }
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            queryStatsFilter.checkBudgetBeforeBody(servletRequest.getServletRequest(), stats);
+        }
+        return body;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements prepared and the time spent executing them while serving the current request. Bound to the request thread by {@link QueryStatsFilter}; statements outside a request,
+ * e.g. from scheduled jobs, are not counted.
+ */
+final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statements;
+    private long executionNanos;
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        if (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long executionNanos() {
+        return executionNanos;
+    }
+
+    double executionMillis() {
+        return executionNanos / 1_000_000.0;
+    }
+
+    /**
+     * Statements prepared at least {@code threshold} times, most repeated first. The same query run
+     * once per row of an earlier result is the usual sign of an N+1 select.
+     */
+    List<Map.Entry<String, Integer>> repeatedStatements(int threshold) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                repeated.add(entry);
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package dev.leandroschillreff.do_it.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import dev.leandroschillreff.do_it.entity.AccountDeletion;
+
+@Repository
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+    @Query("""
+            SELECT d.userId FROM AccountDeletion d
+            WHERE d.completedAt IS NULL AND (d.claimedUntil IS NULL OR d.claimedUntil < :now)
+            ORDER BY d.requestedAt
+            """)
+    List<Long> findClaimableUserIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE AccountDeletion d SET d.claimedUntil = :until
+            WHERE d.userId = :userId AND d.completedAt IS NULL
+              AND (d.claimedUntil IS NULL OR d.claimedUntil < :now)
+            """)
+    int claim(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("""
+            UPDATE AccountDeletion d SET d.notesDeleted = d.notesDeleted + :deleted, d.claimedUntil = :until
+            WHERE d.userId = :userId
+            """)
+    int recordProgress(@Param("userId") Long userId, @Param("deleted") long deleted,
+            @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE AccountDeletion d SET d.completedAt = :now, d.claimedUntil = NULL WHERE d.userId = :userId")
+    int complete(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
\ No newline at end of file
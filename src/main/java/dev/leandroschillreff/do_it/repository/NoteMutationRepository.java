@@ -0,0 +1,116 @@
+package dev.leandroschillreff.do_it.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import dev.leandroschillreff.do_it.entity.Note;
+import dev.leandroschillreff.do_it.entity.NoteTombstone;
+
+/**
+ * Conditional note writes that check ownership and the expected version, change the row and read back
+ * the result in a single statement: {@code RETURNING} on Postgres, a data change delta table on H2.
+ * An empty result means no row matched. The returned notes are detached and carry their new change
+ * sequence value, which the caller has to report to the change feed.
+ */
+@Repository
+public class NoteMutationRepository {
+
+    private static final String NOTE_COLUMNS =
+            "id, title, description, is_completed, completed_at, created_at, updated_at, version, change_seq";
+    private static final String NEXT_CHANGE_SEQ = NoteTombstone.CHANGE_SEQ_NEXTVAL;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public NoteMutationRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource)
+            throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.postgres = switch (database) {
+            case "PostgreSQL" -> true;
+            case "H2" -> false;
+            default -> throw new IllegalStateException("Conditional note writes are not supported on " + database);
+        };
+    }
+
+    public Optional<Note> update(Long id, Long userId, Long expectedVersion, String title, String description,
+            LocalDateTime now) {
+        return updateReturning("title = :title, description = :description", id, userId, expectedVersion, now,
+                new MapSqlParameterSource("title", title).addValue("description", description));
+    }
+
+    public Optional<Note> setCompleted(Long id, Long userId, Long expectedVersion, boolean completed,
+            LocalDateTime now) {
+        return updateReturning("is_completed = :completed, completed_at = :completedAt", id, userId,
+                expectedVersion, now, new MapSqlParameterSource("completed", completed)
+                        .addValue("completedAt", completed ? now : null, Types.TIMESTAMP));
+    }
+
+    /**
+     * Deletes the note and writes its tombstone, returning the tombstone's change sequence value.
+     */
+    public OptionalLong delete(Long id, Long userId, Long expectedVersion, LocalDateTime now) {
+        String delete = "DELETE FROM notes WHERE id = :id AND user_id = :userId"
+                + (expectedVersion == null ? "" : " AND version = :version");
+        String sql = postgres
+                ? """
+                        WITH deleted AS (%s RETURNING id, user_id)
+                        INSERT INTO note_tombstones (change_seq, note_id, user_id, deleted_at)
+                        SELECT %s, id, user_id, :now FROM deleted
+                        RETURNING change_seq
+                        """.formatted(delete, NEXT_CHANGE_SEQ)
+                : """
+                        SELECT change_seq FROM FINAL TABLE (
+                            INSERT INTO note_tombstones (change_seq, note_id, user_id, deleted_at)
+                            SELECT %s, id, user_id, :now FROM OLD TABLE (%s))
+                        """.formatted(NEXT_CHANGE_SEQ, delete);
+        List<Long> changeSeqs = jdbcTemplate.queryForList(sql, new MapSqlParameterSource("id", id)
+                .addValue("userId", userId)
+                .addValue("version", expectedVersion)
+                .addValue("now", now), Long.class);
+        return changeSeqs.isEmpty() ? OptionalLong.empty() : OptionalLong.of(changeSeqs.get(0));
+    }
+
+    private Optional<Note> updateReturning(String assignments, Long id, Long userId, Long expectedVersion,
+            LocalDateTime now, MapSqlParameterSource parameters) {
+        String update = "UPDATE notes SET " + assignments + ", updated_at = :now, version = version + 1, "
+                + "change_seq = " + NEXT_CHANGE_SEQ + " WHERE id = :id AND user_id = :userId"
+                + (expectedVersion == null ? "" : " AND version = :version");
+        String sql = postgres
+                ? update + " RETURNING " + NOTE_COLUMNS
+                : "SELECT " + NOTE_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+        parameters.addValue("id", id)
+                .addValue("userId", userId)
+                .addValue("version", expectedVersion)
+                .addValue("now", now);
+        return jdbcTemplate.query(sql, parameters, NoteMutationRepository::toNote).stream().findFirst();
+    }
+
+    private static Note toNote(ResultSet resultSet, int rowNum) throws SQLException {
+        Note note = new Note();
+        note.setId(resultSet.getLong("id"));
+        note.setTitle(resultSet.getString("title"));
+        note.setDescription(resultSet.getString("description"));
+        note.setCompleted(resultSet.getBoolean("is_completed"));
+        note.setCompletedAt(resultSet.getObject("completed_at", LocalDateTime.class));
+        note.setCreatedAt(resultSet.getObject("created_at", LocalDateTime.class));
+        note.setUpdatedAt(resultSet.getObject("updated_at", LocalDateTime.class));
+        note.setVersion(resultSet.getLong("version"));
+        note.setChangeSeq(resultSet.getLong("change_seq"));
+        return note;
+    }
+}
\ No newline at end of file
@@ -1,16 +1,118 @@
 package dev.leandroschillreff.do_it.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import dev.leandroschillreff.do_it.entity.Note;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
-    List<Note> findAllByUserId(Long userId);
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId")
+    List<Note> findAllByUserId(@Param("userId") Long userId);
 
-    Optional<Note> findByIdAndUserId(Long id, Long userId);
+    @Query("SELECT n FROM Note n WHERE n.id = :id AND n.user.id = :userId")
+    Optional<Note> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("""
+            SELECT n.version AS version, COALESCE(n.updatedAt, n.createdAt) AS lastModified
+            FROM Note n WHERE n.id = :id AND n.user.id = :userId
+            """)
+    Optional<NoteVersion> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notes WHERE id IN (SELECT id FROM notes WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query("""
+            SELECT COUNT(n) AS count, COALESCE(MAX(n.changeSeq), 0) AS lastChangeSeq
+            FROM Note n WHERE n.user.id = :userId
+            """)
+    CollectionStats findCollectionStatsByUserId(@Param("userId") Long userId);
+
+    // Drawing sequence values needs no flush, and one would write pending changes before their change_seq is set.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "SELECT nextval('note_change_seq') FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> nextChangeSeqs(@Param("count") int count);
+
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId AND n.changeSeq > :since ORDER BY n.changeSeq")
+    List<Note> findChangedSince(@Param("userId") Long userId, @Param("since") long since, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM Note n WHERE n.user.id = :userId ORDER BY n.id")
+    Stream<Note> streamAllByUserId(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT n.id AS id, COALESCE(n.changeSeq, 0) AS changeSeq, n.title AS title, n.description AS description
+            FROM Note n WHERE n.user.id = :userId
+            """)
+    List<NoteText> findTextsByUserId(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT n FROM Note n
+            WHERE n.user.id = :userId
+              AND (:completed IS NULL OR n.isCompleted = :completed)
+              AND (:updatedSince IS NULL OR COALESCE(n.updatedAt, n.createdAt) >= :updatedSince)
+            ORDER BY n.createdAt, n.id
+            """)
+    List<Note> findFirstPageByUserId(@Param("userId") Long userId,
+            @Param("completed") Boolean completed,
+            @Param("updatedSince") LocalDateTime updatedSince,
+            Limit limit);
+
+    @Query("""
+            SELECT n FROM Note n
+            WHERE n.user.id = :userId
+              AND (n.createdAt, n.id) > (:createdAt, :id)
+              AND (:completed IS NULL OR n.isCompleted = :completed)
+              AND (:updatedSince IS NULL OR COALESCE(n.updatedAt, n.createdAt) >= :updatedSince)
+            ORDER BY n.createdAt, n.id
+            """)
+    List<Note> findPageByUserIdAfter(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("completed") Boolean completed,
+            @Param("updatedSince") LocalDateTime updatedSince,
+            Limit limit);
+
+    interface NoteVersion {
+        long getVersion();
+
+        LocalDateTime getLastModified();
+    }
+
+    interface NoteText {
+        Long getId();
+
+        long getChangeSeq();
+
+        String getTitle();
+
+        String getDescription();
+    }
+
+    interface CollectionStats {
+        long getCount();
+
+        long getLastChangeSeq();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package dev.leandroschillreff.do_it.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import dev.leandroschillreff.do_it.entity.NoteSyncHorizon;
+
+@Repository
+public interface NoteSyncHorizonRepository extends JpaRepository<NoteSyncHorizon, Integer> {
+    @Query("SELECT h.prunedThroughSeq FROM NoteSyncHorizon h WHERE h.id = " + NoteSyncHorizon.ID)
+    Optional<Long> findPrunedThroughSeq();
+
+    @Modifying
+    @Query("UPDATE NoteSyncHorizon h SET h.prunedThroughSeq = :changeSeq, h.prunedAt = :now "
+            + "WHERE h.id = " + NoteSyncHorizon.ID + " AND h.prunedThroughSeq < :changeSeq")
+    int advance(@Param("changeSeq") long changeSeq, @Param("now") LocalDateTime now);
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package dev.leandroschillreff.do_it.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import dev.leandroschillreff.do_it.entity.NoteTombstone;
+
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+    @Query("""
+            SELECT t FROM NoteTombstone t
+            WHERE t.userId = :userId AND t.changeSeq > :since
+            ORDER BY t.changeSeq
+            """)
+    List<NoteTombstone> findChangedSince(@Param("userId") Long userId, @Param("since") long since, Limit limit);
+
+    @Query("""
+            SELECT t.changeSeq FROM NoteTombstone t
+            WHERE t.deletedAt < :cutoff
+            ORDER BY t.changeSeq
+            """)
+    List<Long> findChangeSeqsDeletedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM NoteTombstone t WHERE t.changeSeq IN :changeSeqs")
+    int deleteByChangeSeqIn(@Param("changeSeqs") Collection<Long> changeSeqs);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM note_tombstones WHERE change_seq IN
+                (SELECT change_seq FROM note_tombstones WHERE user_id = :userId LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
\ No newline at end of file
@@ -3,6 +3,9 @@ package dev.leandroschillreff.do_it.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import dev.leandroschillreff.do_it.entity.User;
@@ -12,4 +15,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE User u SET u.password = :newPassword, u.version = u.version + 1
+            WHERE u.id = :id AND u.password = :oldPassword
+            """)
+    int updatePasswordHash(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+            @Param("newPassword") String newPassword);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id AND u.deletedAt IS NOT NULL")
+    int purgeDeletedById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Offline stand-in for the Postgres engine. It scans only the user's own notes with case-insensitive
+ * LIKE patterns, so there is no index to maintain and no shared state between writers. Every word of
+ * the query must appear in the title or description; notes whose title contains the whole query rank
+ * above the rest.
+ */
+public class H2NoteSearchEngine implements NoteSearchEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2NoteSearchEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void initialize() {
+        // Nothing to create: queries read the notes table directly through its user_id index.
+    }
+
+    @Override
+    public List<Long> search(Long userId, String query, int limit, int offset) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        StringBuilder sql = new StringBuilder("SELECT n.id FROM notes n WHERE n.user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        for (String term : normalized.split("\\s+")) {
+            sql.append(" AND (LOWER(n.title) LIKE ? ESCAPE '\\' OR LOWER(n.description) LIKE ? ESCAPE '\\')");
+            args.add(containing(term));
+            args.add(containing(term));
+        }
+        sql.append(" ORDER BY CASE WHEN LOWER(n.title) LIKE ? ESCAPE '\\' THEN 0 ELSE 1 END, n.id DESC");
+        sql.append(" LIMIT ? OFFSET ?");
+        args.add(containing(normalized));
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    private static String containing(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.leandroschillreff.do_it.event.NoteEvent;
+import dev.leandroschillreff.do_it.event.NoteEventBroker;
+import dev.leandroschillreff.do_it.repository.NoteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serves search from per-user inverted indexes held in memory. A user's index is built from the
+ * database on their first query and then kept current from committed note events, so it also follows
+ * changes made on other nodes when the event broker spans them. Idle users are evicted.
+ */
+public class InMemoryNoteSearchEngine implements NoteSearchEngine {
+
+    private final NoteRepository noteRepository;
+    private final NoteEventBroker noteEventBroker;
+    private final Cache<Long, UserNoteIndex> indexes;
+
+    public InMemoryNoteSearchEngine(NoteRepository noteRepository, NoteEventBroker noteEventBroker,
+            MeterRegistry meterRegistry, long maxUsers, Duration expireAfterIdle) {
+        this.noteRepository = noteRepository;
+        this.noteEventBroker = noteEventBroker;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(expireAfterIdle)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "noteSearchIndexes");
+        Gauge.builder("notes.search.index.notes", indexes,
+                cache -> cache.asMap().values().stream().mapToLong(UserNoteIndex::noteCount).sum())
+                .register(meterRegistry);
+        Gauge.builder("notes.search.index.bytes", indexes,
+                cache -> cache.asMap().values().stream().mapToLong(UserNoteIndex::sizeInBytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to note events; indexes themselves are built per user on demand.
+     */
+    @Override
+    public void initialize() {
+        noteEventBroker.subscribe(this::apply);
+    }
+
+    @Override
+    public List<Long> search(Long userId, String query, int limit, int offset) {
+        List<String> terms = new ArrayList<>();
+        NoteTokenizer.tokenize(query, terms::add);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        UserNoteIndex index = indexes.get(userId, id -> new UserNoteIndex());
+        index.loadOnce(target -> noteRepository.findTextsByUserId(userId)
+                .forEach(note -> target.put(note.getId(), note.getChangeSeq(), note.getTitle(),
+                        note.getDescription())));
+        return index.search(terms, limit, offset);
+    }
+
+    private void apply(NoteEvent event) {
+        UserNoteIndex index = indexes.getIfPresent(event.userId());
+        if (index == null) {
+            return;
+        }
+
+        switch (event.type()) {
+            case CREATED, UPDATED -> index.put(event.noteId(), event.changeSeq(), event.note().getTitle(),
+                    event.note().getDescription());
+            case DELETED -> index.remove(event.noteId(), event.changeSeq());
+            default -> {
+                // Completion changes do not touch indexed text.
+            }
+        }
+    }
+}
\ No newline at end of file
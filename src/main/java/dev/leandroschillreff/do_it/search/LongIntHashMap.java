@@ -0,0 +1,94 @@
+package dev.leandroschillreff.do_it.search;
+
+/**
+ * Open-addressing map from positive long keys to int values, without boxing. Zero marks an empty slot.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int size;
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive");
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        size--;
+
+        // Backward-shift deletion keeps every probe sequence free of gaps without tombstones.
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sizeInBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.List;
+
+/**
+ * Full-text search over note titles and descriptions. The database engines query an index the database
+ * keeps current on every write; the in-memory engine keeps its own index current from note events.
+ */
+public interface NoteSearchEngine {
+
+    /**
+     * Prepares the engine once before the first search: the Postgres engine adds its generated column
+     * and index, the in-memory engine subscribes to note events.
+     */
+    void initialize();
+
+    /**
+     * Returns ids of the user's notes matching the query, most relevant first.
+     */
+    List<Long> search(Long userId, String query, int limit, int offset);
+}
\ No newline at end of file
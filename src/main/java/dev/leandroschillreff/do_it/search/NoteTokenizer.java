@@ -0,0 +1,45 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lowercase terms on anything that is not a letter or digit and strips accents, so
+ * "Reunião" and "reuniao" index to the same term.
+ */
+final class NoteTokenizer {
+
+    static final int MAX_TERM_LENGTH = 64;
+
+    private NoteTokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else {
+                emit(term, terms);
+            }
+        }
+        emit(term, terms);
+    }
+
+    private static void emit(StringBuilder term, Consumer<String> terms) {
+        if (term.length() > 0 && term.length() <= MAX_TERM_LENGTH) {
+            terms.accept(term.toString());
+        }
+        term.setLength(0);
+    }
+}
\ No newline at end of file
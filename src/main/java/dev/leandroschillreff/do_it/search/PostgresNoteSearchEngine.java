@@ -0,0 +1,45 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Searches a generated, weighted {@code tsvector} column (title A, description B) through a GIN index and
+ * ranks matches with {@code ts_rank_cd}. Postgres recomputes the column on every insert and update.
+ */
+public class PostgresNoteSearchEngine implements NoteSearchEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+
+    public PostgresNoteSearchEngine(JdbcTemplate jdbcTemplate, String textSearchConfig) {
+        if (!textSearchConfig.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Invalid text search configuration: " + textSearchConfig);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    @Override
+    public void initialize() {
+        jdbcTemplate.execute("""
+                ALTER TABLE notes ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('%1$s', coalesce(title, '')), 'A')
+                    || setweight(to_tsvector('%1$s', coalesce(description, '')), 'B')
+                ) STORED
+                """.formatted(textSearchConfig));
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notes_search_vector ON notes USING GIN (search_vector)");
+    }
+
+    @Override
+    public List<Long> search(Long userId, String query, int limit, int offset) {
+        return jdbcTemplate.queryForList("""
+                SELECT n.id FROM notes n, websearch_to_tsquery(CAST(? AS regconfig), ?) q
+                WHERE n.user_id = ? AND n.search_vector @@ q
+                ORDER BY ts_rank_cd(n.search_vector, q) DESC, n.id DESC
+                LIMIT ? OFFSET ?
+                """, Long.class, textSearchConfig, query, userId, limit, offset);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.Arrays;
+
+/**
+ * Doc ids of one term in ascending order, stored as variable-length deltas each followed by a one-byte
+ * weight. Most entries take two or three bytes.
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int size;
+    private int lastDoc = -1;
+
+    void add(int doc, int weight) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc ids must be added in ascending order");
+        }
+        ensureCapacity(length + 6);
+        int delta = doc - lastDoc;
+        while ((delta & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        bytes[length++] = (byte) Math.min(weight, 0xFF);
+        lastDoc = doc;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void trim() {
+        if (bytes.length > length) {
+            bytes = Arrays.copyOf(bytes, length);
+        }
+    }
+
+    long sizeInBytes() {
+        return bytes.length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length + (bytes.length >> 1)));
+        }
+    }
+
+    final class Cursor {
+
+        private int position;
+        private int doc = -1;
+        private int weight;
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            doc += delta;
+            weight = bytes[position++] & 0xFF;
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,334 @@
+package dev.leandroschillreff.do_it.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index over one user's notes. Each indexed version of a note gets a dense doc id; updates
+ * delete the old doc and append a new one, and posting lists are compacted once half their docs are
+ * deleted. Queries share a read lock, so a user's writes never block other users.
+ *
+ * <p>Every doc records the change sequence value of the write it came from, and a deleted note keeps a
+ * doc without postings until the next compaction. Changes older than what a note's doc holds are
+ * ignored, so events may arrive out of order or overlap with the initial load.
+ */
+final class UserNoteIndex {
+
+    static final int TITLE_WEIGHT = 3;
+
+    // Rough per-term overhead of the HashMap entry, the term String and the PostingList object.
+    private static final int TERM_OVERHEAD_BYTES = 96;
+    private static final int MIN_DELETED_FOR_COMPACTION = 32;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private LongIntHashMap docsByNoteId = new LongIntHashMap();
+    private long[] noteIds = new long[16];
+    private long[] changeSeqs = new long[16];
+    private int docCount;
+    private int deletedCount;
+    private volatile boolean loaded;
+
+    /**
+     * Runs the loader once, under the write lock, so changes applied while it reads are not lost: each
+     * one either lands before the load or is replayed after it, and the older of two versions loses.
+     */
+    void loadOnce(Consumer<UserNoteIndex> loader) {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loader.accept(this);
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(long noteId, long changeSeq, String title, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        NoteTokenizer.tokenize(title, term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        NoteTokenizer.tokenize(description, term -> weights.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            if (isStale(noteId, changeSeq)) {
+                return;
+            }
+            removeDoc(noteId);
+            int doc = appendDoc(noteId, changeSeq);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new PostingList()).add(doc, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long noteId, long changeSeq) {
+        lock.writeLock().lock();
+        try {
+            if (isStale(noteId, changeSeq)) {
+                return;
+            }
+            // The doc stays mapped without postings, so an older put arriving late cannot bring the note back.
+            int doc = docsByNoteId.get(noteId);
+            if (doc == LongIntHashMap.MISSING) {
+                doc = appendDoc(noteId, changeSeq);
+            } else {
+                changeSeqs[doc] = changeSeq;
+            }
+            if (noteIds[doc] != 0) {
+                noteIds[doc] = 0;
+                deletedCount++;
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of notes containing every term, ordered by the sum of weight times idf per term, with
+     * ties going to the most recently written note.
+     */
+    List<Long> search(List<String> terms, int limit, int offset) {
+        lock.readLock().lock();
+        try {
+            Set<String> distinctTerms = new LinkedHashSet<>(terms);
+            PostingList[] lists = new PostingList[distinctTerms.size()];
+            int index = 0;
+            for (String term : distinctTerms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[index++] = list;
+            }
+            if (lists.length == 0) {
+                return List.of();
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+            int liveDocs = docCount - deletedCount;
+            int[] docs = new int[lists[0].size()];
+            float[] scores = new float[docs.length];
+            int count = 0;
+
+            float idf = idf(lists[0], liveDocs);
+            PostingList.Cursor cursor = lists[0].cursor();
+            while (cursor.next()) {
+                if (noteIds[cursor.doc()] != 0) {
+                    docs[count] = cursor.doc();
+                    scores[count] = cursor.weight() * idf;
+                    count++;
+                }
+            }
+
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                idf = idf(lists[i], liveDocs);
+                cursor = lists[i].cursor();
+                boolean hasNext = cursor.next();
+                int kept = 0;
+                for (int j = 0; j < count && hasNext; j++) {
+                    while (hasNext && cursor.doc() < docs[j]) {
+                        hasNext = cursor.next();
+                    }
+                    if (hasNext && cursor.doc() == docs[j]) {
+                        docs[kept] = docs[j];
+                        scores[kept] = scores[j] + cursor.weight() * idf;
+                        kept++;
+                    }
+                }
+                count = kept;
+            }
+
+            long[] ranked = topRanked(docs, scores, count, (int) Math.min((long) offset + limit, count));
+            List<Long> result = new ArrayList<>(Math.max(ranked.length - offset, 0));
+            for (int j = ranked.length - 1 - offset; j >= 0; j--) {
+                result.add(noteIds[(int) ranked[j]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Docs held, including deleted ones that the next compaction drops.
+     */
+    int docCount() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int noteCount() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) noteIds.length * Long.BYTES * 2 + docsByNoteId.sizeInBytes();
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                bytes += TERM_OVERHEAD_BYTES + entry.getKey().length() + entry.getValue().sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isStale(long noteId, long changeSeq) {
+        int doc = docsByNoteId.get(noteId);
+        return doc != LongIntHashMap.MISSING && changeSeqs[doc] >= changeSeq;
+    }
+
+    private int appendDoc(long noteId, long changeSeq) {
+        int doc = docCount++;
+        if (doc == noteIds.length) {
+            noteIds = Arrays.copyOf(noteIds, noteIds.length * 2);
+            changeSeqs = Arrays.copyOf(changeSeqs, changeSeqs.length * 2);
+        }
+        noteIds[doc] = noteId;
+        changeSeqs[doc] = changeSeq;
+        docsByNoteId.put(noteId, doc);
+        return doc;
+    }
+
+    private void removeDoc(long noteId) {
+        int doc = docsByNoteId.remove(noteId);
+        if (doc == LongIntHashMap.MISSING || noteIds[doc] == 0) {
+            return;
+        }
+        noteIds[doc] = 0;
+        deletedCount++;
+        compactIfSparse();
+    }
+
+    private void compactIfSparse() {
+        if (deletedCount >= MIN_DELETED_FOR_COMPACTION && deletedCount * 2 >= docCount) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[docCount];
+        long[] liveNoteIds = new long[Math.max(16, docCount - deletedCount)];
+        long[] liveChangeSeqs = new long[liveNoteIds.length];
+        LongIntHashMap liveDocsByNoteId = new LongIntHashMap();
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (noteIds[doc] == 0) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                liveNoteIds[live] = noteIds[doc];
+                liveChangeSeqs[live] = changeSeqs[doc];
+                liveDocsByNoteId.put(noteIds[doc], live);
+                live++;
+            }
+        }
+
+        Iterator<Map.Entry<String, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, PostingList> entry = entries.next();
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next()) {
+                if (remap[cursor.doc()] >= 0) {
+                    compacted.add(remap[cursor.doc()], cursor.weight());
+                }
+            }
+            if (compacted.size() == 0) {
+                entries.remove();
+            } else {
+                compacted.trim();
+                entry.setValue(compacted);
+            }
+        }
+
+        noteIds = liveNoteIds;
+        changeSeqs = liveChangeSeqs;
+        docsByNoteId = liveDocsByNoteId;
+        docCount = live;
+        deletedCount = 0;
+    }
+
+    /**
+     * Keeps the best {@code k} candidates in a min-heap and returns them in ascending order. Positive
+     * float bits sort like the floats, so score and doc id pack into one comparable long.
+     */
+    private static long[] topRanked(int[] docs, float[] scores, int count, int k) {
+        long[] heap = new long[k];
+        int size = 0;
+        for (int j = 0; j < count && k > 0; j++) {
+            long ranked = ((long) Float.floatToIntBits(scores[j]) << 32) | docs[j];
+            if (size < k) {
+                heap[size] = ranked;
+                siftUp(heap, size++);
+            } else if (ranked > heap[0]) {
+                heap[0] = ranked;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        return heap;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    private static float idf(PostingList list, int liveDocs) {
+        return (float) Math.log(1 + (double) Math.max(liveDocs, 1) / list.size());
+    }
+}
\ No newline at end of file
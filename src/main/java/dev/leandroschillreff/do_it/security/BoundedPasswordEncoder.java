@@ -0,0 +1,131 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import dev.leandroschillreff.do_it.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} on a fixed pool with a bounded queue, so a burst of logins
+ * cannot take over the request threads. Work that cannot be queued, or that is still queued after
+ * {@code maxWait}, is dropped and fails fast with {@link PasswordHashingBusyException}. A hash that has
+ * started is never abandoned: it cannot be interrupted, so its thread stays busy until it finishes
+ * either way, and the caller waits for the result.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final String BUSY_MESSAGE = "The server is busy. Please retry shortly.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Math.max(1, maxWait.toSeconds());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    // Hashing is CPU bound, so it stays on platform threads even when requests run on virtual ones.
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        // Bound rather than monitor(), which would wrap the tasks and keep remove() from finding them.
+        new ExecutorServiceMetrics(pool, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.rejected = meterRegistry.counter("password.hashing.rejected");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer timer, Callable<T> task) {
+        long started = System.nanoTime();
+        FutureTask<T> future = new FutureTask<>(task);
+        try {
+            pool.execute(future);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            T result;
+            try {
+                result = future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pool.remove(future)) {
+                    rejected.increment();
+                    throw busy();
+                }
+                result = future.get();
+            }
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (InterruptedException e) {
+            pool.remove(future);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing").tag("operation", operation)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry);
+    }
+
+    private PasswordHashingBusyException busy() {
+        return new PasswordHashingBusyException(BUSY_MESSAGE, retryAfterSeconds);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Component
+@ConditionalOnProperty(name = "rate-limit.store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicReference<Bucket>> buckets;
+
+    public InMemoryRateLimitStore(@Value("${rate-limit.store.max-size:100000}") long maxSize,
+            @Value("${rate-limit.store.expire-after-idle:15m}") Duration expireAfterIdle) {
+        // An evicted bucket comes back full, so idle expiry must outlast the longest refill period.
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterIdle)
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitPolicy policy) {
+        AtomicReference<Bucket> bucket = buckets.get(key,
+                k -> new AtomicReference<>(new Bucket(policy.capacity(), System.nanoTime())));
+
+        while (true) {
+            Bucket current = bucket.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(policy.capacity(),
+                    current.tokens() + Math.max(0, now - current.updatedAt()) * policy.tokensPerNano());
+
+            if (tokens < 1) {
+                return RateLimitDecision.reject(nanosUntil(1, tokens, policy),
+                        nanosUntil(policy.capacity(), tokens, policy));
+            }
+
+            Bucket next = new Bucket(tokens - 1, now);
+            if (bucket.compareAndSet(current, next)) {
+                return RateLimitDecision.allow((long) next.tokens(),
+                        nanosUntil(policy.capacity(), next.tokens(), policy));
+            }
+        }
+    }
+
+    private static Duration nanosUntil(double target, double tokens, RateLimitPolicy policy) {
+        return Duration.ofNanos((long) Math.ceil(Math.max(0, target - tokens) / policy.tokensPerNano()));
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+
+public record JwtPrincipal(
+        Long id,
+        String email,
+        Collection<? extends GrantedAuthority> authorities,
+        int tokenVersion) implements Serializable {
+}
@@ -1,8 +1,11 @@
 package dev.leandroschillreff.do_it.security;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,6 +21,8 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import dev.leandroschillreff.do_it.exception.ErrorResponse;
 import dev.leandroschillreff.do_it.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,10 +33,25 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
-
-    public JwtRequestFilter(UserService userService, JwtUtil jwtUtil) {
+    private final TokenVersionStore tokenVersionStore;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PrometheusScrapeMatcher prometheusScrapeMatcher;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
+    public JwtRequestFilter(UserService userService, JwtUtil jwtUtil, TokenVersionStore tokenVersionStore,
+            VerifiedTokenCache verifiedTokenCache, PrometheusScrapeMatcher prometheusScrapeMatcher,
+            MeterRegistry meterRegistry) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionStore = tokenVersionStore;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.prometheusScrapeMatcher = prometheusScrapeMatcher;
+        this.validTokens = verificationTimer(meterRegistry, "valid");
+        this.invalidTokens = verificationTimer(meterRegistry, "invalid");
     }
 
     @Override
@@ -45,7 +65,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 requestPath.startsWith("/swagger-ui") ||
                 requestPath.startsWith("/v3/api-docs") ||
                 requestPath.startsWith("/swagger-resources") ||
-                requestPath.startsWith("/webjars")) {
+                requestPath.startsWith("/webjars") ||
+                requestPath.equals("/actuator/health") ||
+                prometheusScrapeMatcher.matches(request)) {
             chain.doFilter(request, response);
             return;
         }
@@ -55,36 +77,66 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = null;
         String jwt = authorizationHeader.substring(7);
+        VerifiedToken token;
 
+        long started = System.nanoTime();
         try {
-            username = jwtUtil.extractUsername(jwt);
+            token = verifiedTokenCache.verify(jwt);
+            validTokens.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
-            logger.error("Error extracting username from token", e);
+            invalidTokens.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            logger.error("Error verifying token", e);
             handleInvalidToken(response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(username);
-
-            if (Boolean.TRUE.equals(jwtUtil.validateToken(jwt, userDetails))) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext()
-                        .setAuthentication(usernamePasswordAuthenticationToken);
-                chain.doFilter(request, response);
-            } else {
+        if (token.subject() == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Tokens issued before the stateless claims existed fall through to the database lookup.
+        JwtPrincipal principal = stateless ? token.toPrincipal() : null;
+        if (principal != null) {
+            if (!tokenVersionStore.isCurrent(principal.id(), principal.tokenVersion())) {
                 handleInvalidToken(response);
+                return;
             }
-        } else {
+
+            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                    principal, null, principal.authorities());
+            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        UserDetails userDetails = this.userService.loadUserByUsername(token.subject());
+
+        if (Boolean.TRUE.equals(jwtUtil.validateToken(token, userDetails))) {
+            UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            usernamePasswordAuthenticationToken
+                    .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext()
+                    .setAuthentication(usernamePasswordAuthenticationToken);
             chain.doFilter(request, response);
+        } else {
+            handleInvalidToken(response);
         }
     }
 
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verification")
+                .description("Signature and expiry check of bearer tokens, including verified token cache hits")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(5_000))
+                .maximumExpectedValue(Duration.ofMillis(50))
+                .register(meterRegistry);
+    }
+
     private void handleMissingToken(HttpServletResponse response) throws IOException {
         response.setStatus(HttpStatus.FORBIDDEN.value());
         response.setContentType("application/json");
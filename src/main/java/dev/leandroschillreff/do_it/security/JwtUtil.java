@@ -4,14 +4,21 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import dev.leandroschillreff.do_it.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,11 +26,37 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    private static final String ROLES_CLAIM = "roles";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    public JwtUtil(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> grantedAuthorities = roles == null
+                ? List.of()
+                : roles.stream().map(role -> toAuthority(role.toString())).toList();
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class),
+                grantedAuthorities,
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -39,21 +72,20 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = this.secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private GrantedAuthority toAuthority(String role) {
+        return authorities.computeIfAbsent(role, SimpleGrantedAuthority::new);
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+            claims.put(ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -61,11 +93,18 @@ public class JwtUtil {
         return Jwts.builder().setClaims(claims).setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    public Boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        if (token.tokenVersion() != null && userDetails instanceof User user
+                && user.getTokenVersion() != token.tokenVersion()) {
+            return false;
+        }
+        return (token.subject().equals(userDetails.getUsername()) && !token.isExpired());
     }
-}
\ No newline at end of file
+}
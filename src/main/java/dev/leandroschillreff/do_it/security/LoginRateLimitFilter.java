@@ -0,0 +1,190 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.leandroschillreff.do_it.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles login attempts with one token bucket per client IP and one per email address, before any
+ * user lookup or password verification happens.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final RateLimitStore rateLimitStore;
+    private final ObjectMapper objectMapper;
+    private final RateLimitPolicy ipPolicy;
+    private final RateLimitPolicy emailPolicy;
+    private final boolean enabled;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+
+    public LoginRateLimitFilter(RateLimitStore rateLimitStore, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.login.enabled:true}") boolean enabled,
+            @Value("${rate-limit.login.ip.capacity:20}") long ipCapacity,
+            @Value("${rate-limit.login.ip.refill-period:1m}") Duration ipRefillPeriod,
+            @Value("${rate-limit.login.email.capacity:5}") long emailCapacity,
+            @Value("${rate-limit.login.email.refill-period:5m}") Duration emailRefillPeriod) {
+        this.rateLimitStore = rateLimitStore;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipPolicy = new RateLimitPolicy(ipCapacity, ipRefillPeriod);
+        this.emailPolicy = new RateLimitPolicy(emailCapacity, emailRefillPeriod);
+        this.ipRejections = meterRegistry.counter("auth.login.rate_limited", "key", "ip");
+        this.emailRejections = meterRegistry.counter("auth.login.rate_limited", "key", "email");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+
+        RateLimitDecision ipDecision = rateLimitStore.tryConsume("login:ip:" + request.getRemoteAddr(), ipPolicy);
+        if (!ipDecision.allowed()) {
+            ipRejections.increment();
+            reject(response, ipDecision);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large.");
+            return;
+        }
+
+        String email = extractEmail(body);
+        if (email != null) {
+            RateLimitDecision emailDecision = rateLimitStore.tryConsume("login:email:" + email, emailPolicy);
+            if (!emailDecision.allowed()) {
+                emailRejections.increment();
+                reject(response, emailDecision);
+                return;
+            }
+        }
+
+        chain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String extractEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller; only the IP bucket applies to them.
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Please retry later.");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so an async reader can consume all of it right away.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
\ No newline at end of file
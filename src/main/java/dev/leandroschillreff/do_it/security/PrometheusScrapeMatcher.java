@@ -0,0 +1,30 @@
+package dev.leandroschillreff.do_it.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Matches Prometheus scrapes arriving on a separate management port, which are let through without a
+ * token. On the application port /actuator/prometheus needs a bearer token like /actuator/metrics.
+ */
+@Component
+public class PrometheusScrapeMatcher implements RequestMatcher {
+
+    private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
+    private final int managementPort;
+
+    public PrometheusScrapeMatcher(@Value("${management.server.port:-1}") int managementPort,
+            @Value("${server.port:8080}") int serverPort) {
+        this.managementPort = managementPort != serverPort ? managementPort : -1;
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return managementPort > 0 && request.getLocalPort() == managementPort
+                && PROMETHEUS_PATH.equals(request.getServletPath());
+    }
+}
\ No newline at end of file
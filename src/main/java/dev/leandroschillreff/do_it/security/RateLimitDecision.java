@@ -0,0 +1,30 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one bucket check. {@code reset} is the time until the bucket is full again and
+ * {@code retryAfter} the time until the next token, which is zero when the request was allowed.
+ */
+public record RateLimitDecision(boolean allowed, long remaining, Duration reset, Duration retryAfter) {
+
+    public static RateLimitDecision allow(long remaining, Duration reset) {
+        return new RateLimitDecision(true, remaining, reset, Duration.ZERO);
+    }
+
+    public static RateLimitDecision reject(Duration retryAfter, Duration reset) {
+        return new RateLimitDecision(false, 0, reset, retryAfter);
+    }
+
+    public long retryAfterSeconds() {
+        return ceilSeconds(retryAfter);
+    }
+
+    public long resetSeconds() {
+        return ceilSeconds(reset);
+    }
+
+    private static long ceilSeconds(Duration duration) {
+        return Math.max(1, (duration.toMillis() + 999) / 1000);
+    }
+}
\ No newline at end of file
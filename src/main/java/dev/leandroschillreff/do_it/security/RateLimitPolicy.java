@@ -0,0 +1,13 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens, refilled at {@code capacity} tokens per {@code refillPeriod}.
+ */
+public record RateLimitPolicy(long capacity, Duration refillPeriod) {
+
+    public double tokensPerNano() {
+        return (double) capacity / refillPeriod.toNanos();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package dev.leandroschillreff.do_it.security;
+
+/**
+ * Holds token buckets by key. The in-memory implementation limits each node on its own; an implementation
+ * backed by a shared store (for example Redis) makes the limits apply across the whole cluster.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket of {@code key}, creating a full bucket on first use.
+     */
+    RateLimitDecision tryConsume(String key, RateLimitPolicy policy);
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package dev.leandroschillreff.do_it.security;
+
+/**
+ * A new token version for a user, or a revocation of all their tokens when {@code tokenVersion} is
+ * null. Published inside the transaction that changes the user and applied to
+ * {@link TokenVersionStore} once that transaction commits.
+ */
+public record TokenVersionChange(Long userId, Integer tokenVersion) {
+
+    public static TokenVersionChange updated(Long userId, int tokenVersion) {
+        return new TokenVersionChange(userId, tokenVersion);
+    }
+
+    public static TokenVersionChange revoked(Long userId) {
+        return new TokenVersionChange(userId, null);
+    }
+}
\ No newline at end of file
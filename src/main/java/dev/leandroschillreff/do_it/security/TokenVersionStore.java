@@ -0,0 +1,61 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.leandroschillreff.do_it.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Component
+public class TokenVersionStore {
+
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+
+    // Entries are reloaded after expireAfterWrite, which bounds how long another node keeps accepting
+    // tokens revoked by a password change or account deletion.
+    public TokenVersionStore(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${jwt.token-version.max-size:100000}") long maxSize,
+            @Value("${jwt.token-version.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "tokenVersions");
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(REVOKED));
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+
+    public void revoke(Long userId) {
+        versions.put(userId, REVOKED);
+    }
+
+    // Runs after commit so a rolled-back change never reaches the cache, and a version loaded from the
+    // database before the commit is overwritten.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void apply(TokenVersionChange change) {
+        if (change.tokenVersion() == null) {
+            revoke(change.userId());
+        } else {
+            update(change.userId(), change.tokenVersion());
+        }
+    }
+}
\ No newline at end of file
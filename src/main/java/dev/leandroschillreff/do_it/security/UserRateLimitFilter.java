@@ -0,0 +1,109 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.leandroschillreff.do_it.exception.ErrorResponse;
+import dev.leandroschillreff.do_it.service.AuthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies per-user token buckets to the note endpoints, one for reads and one for writes. Runs after
+ * {@link JwtRequestFilter} so the bucket is keyed by the authenticated user id.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String NOTES_PATH = "/api/notes";
+
+    private final RateLimitStore rateLimitStore;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimitPolicy readPolicy;
+    private final RateLimitPolicy writePolicy;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    /**
+     * AuthService is injected lazily because it needs the AuthenticationManager, which the security
+     * configuration that registers this filter builds.
+     */
+    public UserRateLimitFilter(RateLimitStore rateLimitStore, @Lazy AuthService authService,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${rate-limit.notes.enabled:true}") boolean enabled,
+            @Value("${rate-limit.notes.read.capacity:600}") long readCapacity,
+            @Value("${rate-limit.notes.read.refill-period:1m}") Duration readRefillPeriod,
+            @Value("${rate-limit.notes.write.capacity:120}") long writeCapacity,
+            @Value("${rate-limit.notes.write.refill-period:1m}") Duration writeRefillPeriod) {
+        this.rateLimitStore = rateLimitStore;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.readPolicy = new RateLimitPolicy(readCapacity, readRefillPeriod);
+        this.writePolicy = new RateLimitPolicy(writeCapacity, writeRefillPeriod);
+        this.readRejections = meterRegistry.counter("notes.rate_limited", "class", "read");
+        this.writeRejections = meterRegistry.counter("notes.rate_limited", "class", "write");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled || !(path.equals(NOTES_PATH) || path.startsWith(NOTES_PATH + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+
+        Long userId = authService.getCurrentUserId();
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean read = isRead(request.getMethod());
+        RateLimitPolicy policy = read ? readPolicy : writePolicy;
+        RateLimitDecision decision = rateLimitStore.tryConsume(
+                (read ? "notes:read:" : "notes:write:") + userId, policy);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(policy.capacity()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            (read ? readRejections : writeRejections).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.TOO_MANY_REQUESTS.value(),
+                    "Request rate limit exceeded. Please retry later.",
+                    LocalDateTime.now()));
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+public record VerifiedToken(
+        String subject,
+        Long userId,
+        Integer tokenVersion,
+        List<GrantedAuthority> authorities,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public VerifiedToken {
+        authorities = List.copyOf(authorities);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    public JwtPrincipal toPrincipal() {
+        if (userId == null || tokenVersion == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId, subject, authorities, tokenVersion);
+    }
+}
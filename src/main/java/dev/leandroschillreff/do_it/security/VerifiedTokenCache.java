@@ -0,0 +1,91 @@
+package dev.leandroschillreff.do_it.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Component
+public class VerifiedTokenCache {
+
+    // Entries expire at the token's own exp claim, so the cache has to read the same wall clock the
+    // claim is written in rather than Caffeine's default System.nanoTime() ticker.
+    private static final Ticker WALL_CLOCK = () -> epochNanos(Instant.now());
+
+    private final JwtUtil jwtUtil;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-size:100000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .ticker(WALL_CLOCK)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+        }
+    }
+
+    public VerifiedToken verify(String token) {
+        if (cache == null) {
+            return jwtUtil.verify(token);
+        }
+        return cache.get(digest(token), key -> jwtUtil.verify(token));
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static long epochNanos(Instant instant) {
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+
+    private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+            if (token.expiresAt() == null) {
+                return 0;
+            }
+            return Math.max(0, epochNanos(token.expiresAt()) - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
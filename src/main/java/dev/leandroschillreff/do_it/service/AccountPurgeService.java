@@ -0,0 +1,112 @@
+package dev.leandroschillreff.do_it.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.leandroschillreff.do_it.repository.AccountDeletionRepository;
+import dev.leandroschillreff.do_it.repository.NoteRepository;
+import dev.leandroschillreff.do_it.repository.NoteTombstoneRepository;
+import dev.leandroschillreff.do_it.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Purges the data of deleted accounts in the background. Notes and tombstones go in bulk deletes of
+ * at most {@code batchSize} rows, each in its own short transaction, and the user row goes last. A node
+ * leases an account before purging it and renews the lease after every batch, so a crashed node's work
+ * is picked up again once the lease runs out.
+ */
+@Service
+public class AccountPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountPurgeService.class);
+
+    private final AccountDeletionRepository accountDeletionRepository;
+    private final NoteRepository noteRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int accountsPerRun;
+    private final Duration lease;
+    private final Counter purgedNotes;
+    private final Counter purgedAccounts;
+
+    public AccountPurgeService(AccountDeletionRepository accountDeletionRepository, NoteRepository noteRepository,
+            NoteTombstoneRepository noteTombstoneRepository, UserRepository userRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${accounts.purge.batch-size:1000}") int batchSize,
+            @Value("${accounts.purge.accounts-per-run:10}") int accountsPerRun,
+            @Value("${accounts.purge.lease:5m}") Duration lease) {
+        this.accountDeletionRepository = accountDeletionRepository;
+        this.noteRepository = noteRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.accountsPerRun = accountsPerRun;
+        this.lease = lease;
+        this.purgedNotes = meterRegistry.counter("accounts.purge.notes");
+        this.purgedAccounts = meterRegistry.counter("accounts.purge.completed");
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.purge.interval:10s}", initialDelayString = "${accounts.purge.initial-delay:10s}")
+    public void purgePendingAccounts() {
+        List<Long> userIds = accountDeletionRepository.findClaimableUserIds(LocalDateTime.now(),
+                Limit.of(accountsPerRun));
+        for (Long userId : userIds) {
+            try {
+                purge(userId);
+            } catch (RuntimeException e) {
+                log.warn("Purge of deleted user {} failed and will be retried", userId, e);
+            }
+        }
+    }
+
+    void purge(Long userId) {
+        Integer claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return accountDeletionRepository.claim(userId, now, now.plus(lease));
+        });
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        long notes = deleteInBatches(userId, id -> noteRepository.deleteBatchByUserId(id, batchSize), true);
+        deleteInBatches(userId, id -> noteTombstoneRepository.deleteBatchByUserId(id, batchSize), false);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.purgeDeletedById(userId);
+            accountDeletionRepository.complete(userId, LocalDateTime.now());
+        });
+        purgedAccounts.increment();
+        log.info("Purged deleted user {} ({} notes in this run)", userId, notes);
+    }
+
+    private long deleteInBatches(Long userId, ToIntFunction<Long> deleteBatch, boolean notes) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                int rows = deleteBatch.applyAsInt(userId);
+                accountDeletionRepository.recordProgress(userId, notes ? rows : 0, LocalDateTime.now().plus(lease));
+                return rows;
+            });
+            total += deleted;
+        } while (deleted >= batchSize);
+        if (notes) {
+            purgedNotes.increment(total);
+        }
+        return total;
+    }
+}
\ No newline at end of file
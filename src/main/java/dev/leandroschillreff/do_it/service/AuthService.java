@@ -1,50 +1,105 @@
 package dev.leandroschillreff.do_it.service;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import dev.leandroschillreff.do_it.dto.LoginDTO;
+import dev.leandroschillreff.do_it.dto.RefreshTokenDTO;
 import dev.leandroschillreff.do_it.entity.User;
+import dev.leandroschillreff.do_it.security.JwtPrincipal;
 import dev.leandroschillreff.do_it.security.JwtUtil;
 import dev.leandroschillreff.do_it.util.ApiResponseBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final Timer successfulAuthentications;
+    private final Timer failedAuthentications;
 
-    public AuthService(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, JwtUtil jwtUtil,
+            RefreshTokenService refreshTokenService, MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.successfulAuthentications = authenticationTimer(meterRegistry, "success");
+        this.failedAuthentications = authenticationTimer(meterRegistry, "failure");
     }
 
     public Map<String, Object> login(LoginDTO loginDTO) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginDTO.getEmail(), loginDTO.getPassword()));
+        Authentication authentication;
+        long started = System.nanoTime();
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginDTO.getEmail(), loginDTO.getPassword()));
+            successfulAuthentications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (AuthenticationException e) {
+            failedAuthentications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         User userDetails = (User) authentication.getPrincipal();
 
         String token = jwtUtil.generateToken(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getId());
 
         return ApiResponseBuilder.buildLoginResponse(
                 token,
+                refreshToken,
                 userDetails.getId(),
                 userDetails.getName(),
                 userDetails.getEmail());
     }
 
+    public Map<String, Object> refresh(RefreshTokenDTO refreshTokenDTO) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenDTO.getRefreshToken());
+        User user = rotation.user();
+
+        return ApiResponseBuilder.buildRefreshResponse(
+                jwtUtil.generateToken(user),
+                rotation.refreshToken(),
+                user.getId(),
+                user.getName(),
+                user.getEmail());
+    }
+
+    public void logout(RefreshTokenDTO refreshTokenDTO) {
+        refreshTokenService.revoke(refreshTokenDTO.getRefreshToken());
+    }
+
     public Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof User user) {
             return user.getId();
         }
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.id();
+        }
         return null;
     }
+
+    /**
+     * Time of the user lookup plus the password check; the hashing alone is in password.hashing.
+     */
+    private static Timer authenticationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.login.authentication")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
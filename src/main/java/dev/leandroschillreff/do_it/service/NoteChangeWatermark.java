@@ -0,0 +1,118 @@
+package dev.leandroschillreff.do_it.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells the change feed how far its sync token may advance without passing a write that is still in
+ * flight. Change sequence values are drawn before commit, so a write can commit after another one that
+ * drew a higher value; a token past the higher value would make clients skip the lower one for good.
+ *
+ * <p>Each write transaction registers a floor below every value it can draw: the highest value reported
+ * before it started, since the database sequence only grows. A read pins the watermark before its
+ * snapshot and, after its queries, hands out changes only up to the lowest floor of any write that was
+ * in flight in between. Nobody waits: writers neither block each other nor the feed. Floors cover the
+ * writes of this node only.
+ */
+@Component
+class NoteChangeWatermark {
+
+    private final Set<Writer> writers = ConcurrentHashMap.newKeySet();
+    private final Set<Pin> pins = ConcurrentHashMap.newKeySet();
+    private final AtomicLong highestReported = new AtomicLong();
+
+    /**
+     * Registers the current transaction as a writer until it completes. Call before it draws change
+     * sequence values; calling again in the same transaction does nothing.
+     */
+    void beginWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Note writes must run in a transaction");
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        Writer writer = new Writer(highestReported.get());
+        writers.add(writer);
+        TransactionSynchronizationManager.bindResource(this, writer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(NoteChangeWatermark.this);
+                endWrite(writer);
+            }
+        });
+    }
+
+    /**
+     * Records a change sequence value drawn by a writer, which raises the floor of later writers.
+     */
+    void report(long changeSeq) {
+        highestReported.accumulateAndGet(changeSeq, Math::max);
+    }
+
+    /**
+     * Pins the watermark for a read. Open it before the read's first query and close it afterwards.
+     */
+    Pin pin() {
+        Pin pin = new Pin();
+        pins.add(pin);
+        return pin;
+    }
+
+    // Pins learn about the writer before it leaves the set, so a read never misses a writer that ended
+    // between its snapshot and its check.
+    private void endWrite(Writer writer) {
+        pins.forEach(pin -> pin.lower(writer.floor()));
+        writers.remove(writer);
+    }
+
+    // Compared by identity: two writers with the same floor are still two writers.
+    private static final class Writer {
+
+        private final long floor;
+
+        private Writer(long floor) {
+            this.floor = floor;
+        }
+
+        private long floor() {
+            return floor;
+        }
+    }
+
+    final class Pin implements AutoCloseable {
+
+        private final AtomicLong lowestFloor = new AtomicLong(Long.MAX_VALUE);
+
+        private Pin() {
+        }
+
+        /**
+         * Returns the highest change sequence value every write in flight since the pin was opened has
+         * settled, or Long.MAX_VALUE when there was no such write. Call after the read's queries.
+         */
+        long settledThrough() {
+            long settled = Long.MAX_VALUE;
+            for (Writer writer : writers) {
+                settled = Math.min(settled, writer.floor());
+            }
+            return Math.min(settled, lowestFloor.get());
+        }
+
+        private void lower(long floor) {
+            lowestFloor.accumulateAndGet(floor, Math::min);
+        }
+
+        @Override
+        public void close() {
+            pins.remove(this);
+        }
+    }
+}
\ No newline at end of file
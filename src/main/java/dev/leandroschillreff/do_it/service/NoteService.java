@@ -1,120 +1,519 @@
 package dev.leandroschillreff.do_it.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.leandroschillreff.do_it.config.CacheConfig;
+import dev.leandroschillreff.do_it.dto.NoteBatchOperationDTO;
+import dev.leandroschillreff.do_it.dto.NoteBatchOperationType;
+import dev.leandroschillreff.do_it.dto.NoteBatchResultDTO;
+import dev.leandroschillreff.do_it.dto.NoteChangesDTO;
 import dev.leandroschillreff.do_it.dto.NoteDTO;
+import dev.leandroschillreff.do_it.dto.NotePageDTO;
 import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+import dev.leandroschillreff.do_it.dto.NoteSearchResultDTO;
 import dev.leandroschillreff.do_it.entity.Note;
+import dev.leandroschillreff.do_it.entity.NoteTombstone;
+import dev.leandroschillreff.do_it.event.NoteEvent;
+import dev.leandroschillreff.do_it.event.NoteEventType;
 import dev.leandroschillreff.do_it.entity.User;
+import dev.leandroschillreff.do_it.exception.NoteLimitExceededException;
+import dev.leandroschillreff.do_it.exception.PreconditionFailedException;
 import dev.leandroschillreff.do_it.exception.ResourceNotFoundException;
+import dev.leandroschillreff.do_it.exception.SyncTokenExpiredException;
 import dev.leandroschillreff.do_it.exception.UnauthorizedAccessException;
+import dev.leandroschillreff.do_it.repository.NoteMutationRepository;
 import dev.leandroschillreff.do_it.repository.NoteRepository;
-import dev.leandroschillreff.do_it.repository.UserRepository;
+import dev.leandroschillreff.do_it.repository.NoteSyncHorizonRepository;
+import dev.leandroschillreff.do_it.repository.NoteTombstoneRepository;
+import dev.leandroschillreff.do_it.search.NoteSearchEngine;
+import dev.leandroschillreff.do_it.util.NoteCursor;
+import dev.leandroschillreff.do_it.util.NoteFreshness;
+import jakarta.persistence.EntityManager;
 
 @Service
 public class NoteService {
 
     private static final String NOTE_NOT_FOUND = "Note not found with id: ";
+    private static final String STALE_NOTE = "The note was modified since the given ETag.";
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
 
     private final NoteRepository noteRepository;
-    private final UserRepository userRepository;
+    private final NoteMutationRepository noteMutationRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final NoteSyncHorizonRepository noteSyncHorizonRepository;
+    private final NoteChangeWatermark changeWatermark;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteSearchEngine noteSearchEngine;
+
+    @Value("${notes.page.max-limit:200}")
+    private int maxPageLimit;
+
+    @Value("${notes.max-per-user:10000}")
+    private long maxNotesPerUser;
 
-    public NoteService(NoteRepository noteRepository, UserRepository userRepository) {
+    public NoteService(NoteRepository noteRepository, NoteMutationRepository noteMutationRepository,
+            NoteTombstoneRepository noteTombstoneRepository, NoteSyncHorizonRepository noteSyncHorizonRepository,
+            NoteChangeWatermark changeWatermark, EntityManager entityManager, ObjectMapper objectMapper,
+            CacheManager cacheManager, ApplicationEventPublisher eventPublisher, NoteSearchEngine noteSearchEngine) {
         this.noteRepository = noteRepository;
-        this.userRepository = userRepository;
+        this.noteMutationRepository = noteMutationRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.noteSyncHorizonRepository = noteSyncHorizonRepository;
+        this.changeWatermark = changeWatermark;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.noteSearchEngine = noteSearchEngine;
+    }
+
+    /**
+     * Validators of the user's note list from one index-only aggregate, checked before the list is loaded.
+     */
+    public NoteFreshness getCollectionFreshness(Long userId) {
+        NoteRepository.CollectionStats stats = noteRepository.findCollectionStatsByUserId(userId);
+        return NoteFreshness.ofCollection(stats.getCount(), stats.getLastChangeSeq());
     }
 
-    public List<NoteResponseDTO> getAllNotesByUserId(Long userId) {
-        return noteRepository.findAllByUserId(userId)
+    // Cached under the list's ETag: a write changes it before its commit returns, so the old entry becomes
+    // unreachable without being evicted.
+    public List<NoteResponseDTO> getAllNotesByUserId(Long userId, NoteFreshness freshness) {
+        return cached(CacheConfig.NOTE_LIST_CACHE, userId + ":" + freshness.eTag(), () -> noteRepository
+                .findAllByUserId(userId)
                 .stream()
                 .map(this::convertToResponseDTO)
-                .toList();
+                .toList());
     }
 
-    public NoteResponseDTO getNoteById(Long noteId, Long userId) {
-        Note note = noteRepository.findByIdAndUserId(noteId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId));
+    public NotePageDTO getNotesPage(Long userId, String cursor, int limit, Boolean completed,
+            LocalDateTime updatedSince) {
+        int pageSize = Math.min(Math.max(limit, 1), maxPageLimit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
 
-        if (!note.getUser().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("You do not have permission to access this note.");
+        List<Note> notes;
+        if (cursor == null || cursor.isBlank()) {
+            notes = noteRepository.findFirstPageByUserId(userId, completed, updatedSince, fetchLimit);
+        } else {
+            NoteCursor after = NoteCursor.decode(cursor);
+            notes = noteRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), completed,
+                    updatedSince, fetchLimit);
         }
 
-        return convertToResponseDTO(note);
+        boolean hasMore = notes.size() > pageSize;
+        List<Note> page = hasMore ? notes.subList(0, pageSize) : notes;
+        String nextCursor = hasMore ? NoteCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new NotePageDTO(
+                page.stream().map(this::convertToResponseDTO).toList(),
+                nextCursor,
+                hasMore);
     }
 
-    public NoteResponseDTO createNote(NoteDTO noteDTO, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    @Transactional(readOnly = true)
+    public NoteSearchResultDTO searchNotes(Long userId, String query, int limit, int offset) {
+        if (query == null || query.isBlank()) {
+            return new NoteSearchResultDTO(List.of(), null, false);
+        }
 
-        Note note = new Note();
-        note.setTitle(noteDTO.getTitle());
-        note.setDescription(noteDTO.getDescription());
-        note.setUser(user);
+        int pageSize = Math.min(Math.max(limit, 1), maxPageLimit);
+        int start = Math.max(offset, 0);
+        List<Long> ids = noteSearchEngine.search(userId, query.trim(), pageSize + 1, start);
 
-        Note savedNote = noteRepository.save(note);
-        return convertToResponseDTO(savedNote);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        Map<Long, Note> notesById = noteRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        return new NoteSearchResultDTO(
+                pageIds.stream()
+                        .map(notesById::get)
+                        .filter(note -> note != null)
+                        .map(this::convertToResponseDTO)
+                        .toList(),
+                hasMore ? start + pageSize : null,
+                hasMore);
     }
 
-    public NoteResponseDTO updateNote(Long noteId, NoteDTO noteDTO, Long userId) {
-        Note note = noteRepository.findById(noteId)
+    // Repeatable read gives the horizon, note and tombstone queries one snapshot, so the merge below sees
+    // either all or none of a concurrent write. The pin is opened before that snapshot is taken.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public NoteChangesDTO getChanges(Long userId, long since, int limit) {
+        try (NoteChangeWatermark.Pin pin = changeWatermark.pin()) {
+            if (since > 0 && since < noteSyncHorizonRepository.findPrunedThroughSeq().orElse(0L)) {
+                throw new SyncTokenExpiredException("The sync token is older than the retained deletions. "
+                        + "Discard local notes and sync again from 0.");
+            }
+
+            int pageSize = Math.min(Math.max(limit, 1), maxPageLimit);
+            Limit fetchLimit = Limit.of(pageSize + 1);
+
+            List<Note> notes = noteRepository.findChangedSince(userId, since, fetchLimit);
+            List<NoteTombstone> tombstones = noteTombstoneRepository.findChangedSince(userId, since, fetchLimit);
+            // Changes past a write still in flight wait for the next call; handing them out now would move the
+            // token past whatever that write commits.
+            long settledThrough = pin.settledThrough();
+
+            // Both lists are ordered by change sequence; merge them so the sync token never skips a change.
+            List<NoteResponseDTO> changedNotes = new ArrayList<>();
+            List<Long> deletedNoteIds = new ArrayList<>();
+            long syncToken = since;
+            int noteIndex = 0;
+            int tombstoneIndex = 0;
+            while (noteIndex < notes.size() || tombstoneIndex < tombstones.size()) {
+                boolean takeNote = tombstoneIndex >= tombstones.size() || (noteIndex < notes.size()
+                        && notes.get(noteIndex).getChangeSeq() < tombstones.get(tombstoneIndex).getChangeSeq());
+                long changeSeq = takeNote ? notes.get(noteIndex).getChangeSeq()
+                        : tombstones.get(tombstoneIndex).getChangeSeq();
+                if (changeSeq > settledThrough || changedNotes.size() + deletedNoteIds.size() == pageSize) {
+                    break;
+                }
+                if (takeNote) {
+                    changedNotes.add(convertToResponseDTO(notes.get(noteIndex++)));
+                } else {
+                    deletedNoteIds.add(tombstones.get(tombstoneIndex++).getNoteId());
+                }
+                syncToken = changeSeq;
+            }
+
+            boolean hasMore = changedNotes.size() + deletedNoteIds.size() == pageSize
+                    && (noteIndex < notes.size() || tombstoneIndex < tombstones.size());
+            return new NoteChangesDTO(changedNotes, deletedNoteIds, syncToken, hasMore);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNotes(Long userId, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        try (Stream<Note> notes = noteRepository.streamAllByUserId(userId)) {
+            int written = 0;
+            for (Note note : (Iterable<Note>) notes::iterator) {
+                generator.writeObject(convertToResponseDTO(note));
+                // Keep the persistence context empty so memory does not grow with the number of notes.
+                entityManager.detach(note);
+
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Validators of one note read from the index, checked before the note is loaded.
+     */
+    public NoteFreshness getNoteFreshness(Long noteId, Long userId) {
+        NoteRepository.NoteVersion version = noteRepository.findVersionByIdAndUserId(noteId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId));
+        return NoteFreshness.ofVersion(noteId, version.getVersion(), version.getLastModified());
+    }
+
+    // Cached under the note's ETag, which every write changes, for the same reason as the list.
+    public NoteResponseDTO getNoteById(Long noteId, Long userId, NoteFreshness freshness) {
+        return cached(CacheConfig.NOTE_CACHE, userId + ":" + freshness.eTag(), () -> getOwnedNote(noteId, userId));
+    }
+
+    private <T> T cached(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        try {
+            return cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            // Rethrow the loader's own exception, e.g. a 404 for a note deleted after its version was read.
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-        if (!note.getUser().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("You do not have permission to update this note.");
+    @Transactional
+    public NoteResponseDTO createNote(NoteDTO noteDTO, Long userId) {
+        changeWatermark.beginWrite();
+        if (remainingNoteQuota(userId) <= 0) {
+            throw new NoteLimitExceededException(noteLimitMessage());
         }
 
+        Note note = new Note();
         note.setTitle(noteDTO.getTitle());
         note.setDescription(noteDTO.getDescription());
+        note.setUser(entityManager.getReference(User.class, userId));
+        assignChangeSeqs(List.of(note));
 
-        Note updatedNote = noteRepository.save(note);
-        return convertToResponseDTO(updatedNote);
+        Note savedNote = noteRepository.save(note);
+        NoteResponseDTO created = convertToResponseDTO(savedNote);
+        eventPublisher.publishEvent(NoteEvent.of(NoteEventType.CREATED, userId, savedNote.getChangeSeq(), created));
+        return created;
     }
 
+    @Transactional
+    public NoteResponseDTO updateNote(Long noteId, NoteDTO noteDTO, Long userId, Long expectedVersion) {
+        changeWatermark.beginWrite();
+        Note note = noteMutationRepository.update(noteId, userId, expectedVersion, noteDTO.getTitle(),
+                noteDTO.getDescription(), LocalDateTime.now())
+                .orElseThrow(() -> noteNotFoundOrForbidden(noteId, userId, expectedVersion,
+                        "You do not have permission to update this note."));
+        NoteResponseDTO updated = changed(note);
+        eventPublisher.publishEvent(NoteEvent.of(NoteEventType.UPDATED, userId, note.getChangeSeq(), updated));
+        return updated;
+    }
+
+    @Transactional
     public void deleteNote(Long noteId, Long userId) {
-        Note note = noteRepository.findById(noteId)
-                .orElseThrow(() -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId));
+        changeWatermark.beginWrite();
+        long changeSeq = noteMutationRepository.delete(noteId, userId, null, LocalDateTime.now())
+                .orElseThrow(() -> noteNotFoundOrForbidden(noteId, userId, null,
+                        "You do not have permission to delete this note."));
+        changeWatermark.report(changeSeq);
+        eventPublisher.publishEvent(NoteEvent.deleted(userId, noteId, changeSeq));
+    }
 
-        if (!note.getUser().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("You do not have permission to delete this note.");
-        }
+    @Transactional
+    public NoteResponseDTO completeNote(Long noteId, Long userId, Long expectedVersion) {
+        changeWatermark.beginWrite();
+        Note note = noteMutationRepository.setCompleted(noteId, userId, expectedVersion, true, LocalDateTime.now())
+                .orElseThrow(() -> noteNotFoundOrForbidden(noteId, userId, expectedVersion,
+                        "You do not have permission to complete this note."));
+        NoteResponseDTO completed = changed(note);
+        eventPublisher.publishEvent(NoteEvent.of(NoteEventType.COMPLETED, userId, note.getChangeSeq(), completed));
+        return completed;
+    }
+
+    @Transactional
+    public NoteResponseDTO uncompleteNote(Long noteId, Long userId, Long expectedVersion) {
+        changeWatermark.beginWrite();
+        Note note = noteMutationRepository.setCompleted(noteId, userId, expectedVersion, false, LocalDateTime.now())
+                .orElseThrow(() -> noteNotFoundOrForbidden(noteId, userId, expectedVersion,
+                        "You do not have permission to modify this note."));
+        NoteResponseDTO uncompleted = changed(note);
+        eventPublisher.publishEvent(NoteEvent.of(NoteEventType.UNCOMPLETED, userId, note.getChangeSeq(),
+                uncompleted));
+        return uncompleted;
+    }
 
-        noteRepository.delete(note);
+    private NoteResponseDTO changed(Note note) {
+        changeWatermark.report(note.getChangeSeq());
+        return convertToResponseDTO(note);
     }
 
-    public NoteResponseDTO completeNote(Long noteId, Long userId) {
-        Note note = noteRepository.findById(noteId)
+    private NoteResponseDTO getOwnedNote(Long noteId, Long userId) {
+        return noteRepository.findByIdAndUserId(noteId, userId)
+                .map(this::convertToResponseDTO)
                 .orElseThrow(() -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId));
+    }
 
-        if (!note.getUser().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("You do not have permission to complete this note.");
+    private RuntimeException noteNotFoundOrForbidden(Long noteId, Long userId, Long expectedVersion,
+            String forbiddenMessage) {
+        return switch (missedWriteStatus(noteId, userId, expectedVersion)) {
+            case PRECONDITION_FAILED -> new PreconditionFailedException(STALE_NOTE);
+            case FORBIDDEN -> new UnauthorizedAccessException(forbiddenMessage);
+            default -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId);
+        };
+    }
+
+    // Only reached when a conditional statement matched no row, so the extra lookups stay off the hot path.
+    private HttpStatus missedWriteStatus(Long noteId, Long userId, Long expectedVersion) {
+        if (expectedVersion != null && noteRepository.existsByIdAndUserId(noteId, userId)) {
+            return HttpStatus.PRECONDITION_FAILED;
+        }
+        if (noteRepository.existsById(noteId)) {
+            return HttpStatus.FORBIDDEN;
         }
+        return HttpStatus.NOT_FOUND;
+    }
+
+    // Creates are inserted together as one JDBC batch at the end. Every other operation is the same
+    // conditional statement the single-note endpoints use, so it checks ownership and the expected version
+    // without loading the note, and later operations see the effect of earlier ones.
+    @Transactional
+    public List<NoteBatchResultDTO> executeBatch(List<NoteBatchOperationDTO> operations, Long userId) {
+        changeWatermark.beginWrite();
+        User user = entityManager.getReference(User.class, userId);
+        boolean createsNotes = operations.stream()
+                .anyMatch(operation -> operation.getType() == NoteBatchOperationType.CREATE);
+        long noteQuota = createsNotes ? remainingNoteQuota(userId) : 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<Note> createdNotes = new ArrayList<>();
+        List<NoteBatchResultDTO> results = new ArrayList<>(operations.size());
+        Note[] resultNotes = new Note[operations.size()];
+        long[] deleteChangeSeqs = new long[operations.size()];
 
-        note.setCompleted(true);
-        note.setCompletedAt(LocalDateTime.now());
+        for (int index = 0; index < operations.size(); index++) {
+            NoteBatchOperationDTO operation = operations.get(index);
+            NoteBatchResultDTO result = new NoteBatchResultDTO(index, operation.getType(), operation.getNoteId(),
+                    HttpStatus.OK.value(), null, null);
+            results.add(result);
 
-        Note updatedNote = noteRepository.save(note);
-        return convertToResponseDTO(updatedNote);
+            boolean writesText = operation.getType() == NoteBatchOperationType.CREATE
+                    || operation.getType() == NoteBatchOperationType.UPDATE;
+            if (writesText && (isBlank(operation.getTitle()) || isBlank(operation.getDescription()))) {
+                result.setStatus(HttpStatus.BAD_REQUEST.value());
+                result.setMessage("Title and description cannot be blank");
+                continue;
+            }
+
+            if (operation.getType() == NoteBatchOperationType.CREATE) {
+                if (noteQuota-- <= 0) {
+                    result.setStatus(HttpStatus.CONFLICT.value());
+                    result.setMessage(noteLimitMessage());
+                    continue;
+                }
+
+                Note note = new Note();
+                note.setTitle(operation.getTitle());
+                note.setDescription(operation.getDescription());
+                note.setUser(user);
+                createdNotes.add(note);
+                resultNotes[index] = note;
+                result.setStatus(HttpStatus.CREATED.value());
+                result.setMessage("Note created successfully");
+                continue;
+            }
+
+            Long noteId = operation.getNoteId();
+            if (noteId == null) {
+                result.setStatus(HttpStatus.NOT_FOUND.value());
+                result.setMessage(NOTE_NOT_FOUND + noteId);
+                continue;
+            }
+
+            Long expectedVersion = operation.getVersion();
+            if (operation.getType() == NoteBatchOperationType.DELETE) {
+                OptionalLong changeSeq = noteMutationRepository.delete(noteId, userId, expectedVersion, now);
+                if (changeSeq.isEmpty()) {
+                    rejectMissedWrite(result, noteId, userId, expectedVersion);
+                    continue;
+                }
+                changeWatermark.report(changeSeq.getAsLong());
+                deleteChangeSeqs[index] = changeSeq.getAsLong();
+                result.setStatus(HttpStatus.NO_CONTENT.value());
+                result.setMessage("Note deleted successfully");
+                continue;
+            }
+
+            Optional<Note> changed = switch (operation.getType()) {
+                case UPDATE -> noteMutationRepository.update(noteId, userId, expectedVersion, operation.getTitle(),
+                        operation.getDescription(), now);
+                case COMPLETE -> noteMutationRepository.setCompleted(noteId, userId, expectedVersion, true, now);
+                case UNCOMPLETE -> noteMutationRepository.setCompleted(noteId, userId, expectedVersion, false, now);
+                default -> throw new IllegalStateException("Unexpected operation: " + operation.getType());
+            };
+            if (changed.isEmpty()) {
+                rejectMissedWrite(result, noteId, userId, expectedVersion);
+                continue;
+            }
+            Note note = changed.get();
+            changeWatermark.report(note.getChangeSeq());
+            resultNotes[index] = note;
+            result.setMessage(switch (operation.getType()) {
+                case UPDATE -> "Note updated successfully";
+                case COMPLETE -> "Note marked as completed";
+                default -> "Note unmarked as completed";
+            });
+        }
+
+        assignChangeSeqs(createdNotes);
+        noteRepository.saveAll(createdNotes);
+        noteRepository.flush();
+
+        for (int index = 0; index < resultNotes.length; index++) {
+            Note note = resultNotes[index];
+            NoteBatchResultDTO result = results.get(index);
+            if (note != null) {
+                result.setNoteId(note.getId());
+                result.setNote(convertToResponseDTO(note));
+                eventPublisher.publishEvent(NoteEvent.of(toEventType(result.getType()), userId, note.getChangeSeq(),
+                        result.getNote()));
+            } else if (result.getStatus() == HttpStatus.NO_CONTENT.value()) {
+                eventPublisher.publishEvent(NoteEvent.deleted(userId, result.getNoteId(), deleteChangeSeqs[index]));
+            }
+        }
+        return results;
     }
 
-    public NoteResponseDTO uncompleteNote(Long noteId, Long userId) {
-        Note note = noteRepository.findById(noteId)
-                .orElseThrow(() -> new ResourceNotFoundException(NOTE_NOT_FOUND + noteId));
+    private void rejectMissedWrite(NoteBatchResultDTO result, Long noteId, Long userId, Long expectedVersion) {
+        HttpStatus status = missedWriteStatus(noteId, userId, expectedVersion);
+        result.setStatus(status.value());
+        result.setMessage(switch (status) {
+            case PRECONDITION_FAILED -> STALE_NOTE;
+            case FORBIDDEN -> "You do not have permission to modify this note.";
+            default -> NOTE_NOT_FOUND + noteId;
+        });
+    }
+
+    private static NoteEventType toEventType(NoteBatchOperationType type) {
+        return switch (type) {
+            case CREATE -> NoteEventType.CREATED;
+            case UPDATE -> NoteEventType.UPDATED;
+            case COMPLETE -> NoteEventType.COMPLETED;
+            case UNCOMPLETE -> NoteEventType.UNCOMPLETED;
+            case DELETE -> NoteEventType.DELETED;
+        };
+    }
 
-        if (!note.getUser().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("You do not have permission to modify this note.");
+    // One statement draws the values for every written note, so inserts and updates still go out as JDBC batches.
+    private void assignChangeSeqs(Collection<Note> notes) {
+        if (notes.isEmpty()) {
+            return;
         }
+        List<Long> drawn = noteRepository.nextChangeSeqs(notes.size());
+        Iterator<Long> changeSeqs = drawn.iterator();
+        notes.forEach(note -> note.setChangeSeq(changeSeqs.next()));
+        changeWatermark.report(Collections.max(drawn));
+    }
+
+    // Concurrent creates of one user can each see room for the last note, so the cap may be exceeded by the
+    // number of writers racing for it.
+    private long remainingNoteQuota(Long userId) {
+        return maxNotesPerUser - noteRepository.countByUserId(userId);
+    }
 
-        note.setCompleted(false);
-        note.setCompletedAt(null);
+    private String noteLimitMessage() {
+        return "Note limit of " + maxNotesPerUser + " per user reached.";
+    }
 
-        Note updatedNote = noteRepository.save(note);
-        return convertToResponseDTO(updatedNote);
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
-    private NoteResponseDTO convertToResponseDTO(Note note) {
+    NoteResponseDTO convertToResponseDTO(Note note) {
         NoteResponseDTO noteResponseDTO = new NoteResponseDTO();
         noteResponseDTO.setId(note.getId());
         noteResponseDTO.setTitle(note.getTitle());
@@ -123,6 +522,7 @@ public class NoteService {
         noteResponseDTO.setCompletedAt(note.getCompletedAt());
         noteResponseDTO.setCreatedAt(note.getCreatedAt());
         noteResponseDTO.setUpdatedAt(note.getUpdatedAt());
+        noteResponseDTO.setVersion(note.getVersion());
         return noteResponseDTO;
     }
 }
\ No newline at end of file
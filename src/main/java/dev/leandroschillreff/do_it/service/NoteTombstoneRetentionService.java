@@ -0,0 +1,91 @@
+package dev.leandroschillreff.do_it.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.leandroschillreff.do_it.entity.NoteSyncHorizon;
+import dev.leandroschillreff.do_it.repository.NoteSyncHorizonRepository;
+import dev.leandroschillreff.do_it.repository.NoteTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes tombstones of notes deleted longer than {@code retention} ago, in batches of at most
+ * {@code batchSize} rows. Each batch raises the sync horizon to the highest change sequence it removes
+ * in the same transaction, so the change feed starts refusing tokens that could have missed those
+ * deletions exactly when they disappear.
+ */
+@Service
+public class NoteTombstoneRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteTombstoneRetentionService.class);
+
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final NoteSyncHorizonRepository noteSyncHorizonRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter prunedTombstones;
+
+    public NoteTombstoneRetentionService(NoteTombstoneRepository noteTombstoneRepository,
+            NoteSyncHorizonRepository noteSyncHorizonRepository, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notes.tombstones.retention:30d}") Duration retention,
+            @Value("${notes.tombstones.prune-batch-size:1000}") int batchSize) {
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.noteSyncHorizonRepository = noteSyncHorizonRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.prunedTombstones = meterRegistry.counter("notes.tombstones.pruned");
+    }
+
+    @Scheduled(fixedDelayString = "${notes.tombstones.prune-interval:1h}", initialDelayString = "${notes.tombstones.prune-initial-delay:1m}")
+    public void pruneExpiredTombstones() {
+        try {
+            long pruned = prune(LocalDateTime.now().minus(retention));
+            if (pruned > 0) {
+                log.info("Pruned {} note tombstones older than {}", pruned, retention);
+            }
+        } catch (RuntimeException e) {
+            // Another node may have created the horizon row first; the next run picks up where this one stopped.
+            log.warn("Pruning note tombstones failed and will be retried", e);
+        }
+    }
+
+    long prune(LocalDateTime cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> changeSeqs = noteTombstoneRepository.findChangeSeqsDeletedBefore(cutoff,
+                        Limit.of(batchSize));
+                if (changeSeqs.isEmpty()) {
+                    return 0;
+                }
+                advanceHorizon(changeSeqs.get(changeSeqs.size() - 1));
+                return noteTombstoneRepository.deleteByChangeSeqIn(changeSeqs);
+            });
+            total += deleted;
+        } while (deleted >= batchSize);
+        prunedTombstones.increment(total);
+        return total;
+    }
+
+    private void advanceHorizon(long changeSeq) {
+        LocalDateTime now = LocalDateTime.now();
+        if (noteSyncHorizonRepository.advance(changeSeq, now) == 0
+                && !noteSyncHorizonRepository.existsById(NoteSyncHorizon.ID)) {
+            noteSyncHorizonRepository.save(new NoteSyncHorizon(NoteSyncHorizon.ID, changeSeq, now));
+        }
+    }
+}
\ No newline at end of file
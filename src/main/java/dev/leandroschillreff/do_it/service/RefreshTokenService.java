@@ -0,0 +1,116 @@
+package dev.leandroschillreff.do_it.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import dev.leandroschillreff.do_it.entity.RefreshToken;
+import dev.leandroschillreff.do_it.entity.User;
+import dev.leandroschillreff.do_it.exception.InvalidRefreshTokenException;
+import dev.leandroschillreff.do_it.repository.RefreshTokenRepository;
+import dev.leandroschillreff.do_it.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Issues opaque refresh tokens and rotates them on every use. Tokens are looked up by their SHA-256,
+ * so refreshing costs one indexed query and never runs the password encoder.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String INVALID_TOKEN = "Refresh token is invalid or expired";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration expiration;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh.expiration:30d}") Duration expiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.expiration = expiration;
+        this.reuseDetected = meterRegistry.counter("auth.refresh.reuse_detected");
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpiredByUserId(userId, now);
+        return save(userId, UUID.randomUUID().toString(), now);
+    }
+
+    /**
+     * Exchanges a refresh token for a new one of the same family. Presenting a token that was already
+     * rotated or revoked means it leaked, so the whole family is revoked; that revocation must commit
+     * even though the call fails.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getUsedAt() != null || token.getRevokedAt() != null
+                || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            reuseDetected.increment();
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        User user = userRepository.findById(token.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN));
+        return new Rotation(user, save(user.getId(), token.getFamilyId(), now));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    private String save(Long userId, String familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setIssuedAt(now);
+        token.setExpiresAt(now.plus(expiration));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,30 +1,47 @@
 package dev.leandroschillreff.do_it.service;
 
+import java.time.LocalDateTime;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import dev.leandroschillreff.do_it.dto.UserDTO;
 import dev.leandroschillreff.do_it.dto.UserResponseDTO;
+import dev.leandroschillreff.do_it.entity.AccountDeletion;
 import dev.leandroschillreff.do_it.entity.User;
 import dev.leandroschillreff.do_it.exception.ResourceNotFoundException;
 import dev.leandroschillreff.do_it.exception.UnauthorizedAccessException;
 import dev.leandroschillreff.do_it.exception.UserAlreadyExistsException;
+import dev.leandroschillreff.do_it.repository.AccountDeletionRepository;
+import dev.leandroschillreff.do_it.repository.RefreshTokenRepository;
 import dev.leandroschillreff.do_it.repository.UserRepository;
+import dev.leandroschillreff.do_it.security.TokenVersionChange;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final String USER_NOT_FOUND = "User not found with id: ";
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AccountDeletionRepository accountDeletionRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher, RefreshTokenRepository refreshTokenRepository,
+            AccountDeletionRepository accountDeletionRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accountDeletionRepository = accountDeletionRepository;
     }
 
     @Override
@@ -33,6 +50,17 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        // Conditional on the old hash, so a rehash never overwrites a concurrent password change.
+        if (userRepository.updatePasswordHash(user.getId(), user.getPassword(), newPassword) == 1) {
+            user.setPassword(newPassword);
+        }
+        return user;
+    }
+
     public UserResponseDTO createUser(UserDTO userCreationDTO) {
         if (userRepository.existsByEmail(userCreationDTO.getEmail())) {
             throw new UserAlreadyExistsException("Email is already in use.");
@@ -57,6 +85,7 @@ public class UserService implements UserDetailsService {
         return convertToDTO(user);
     }
 
+    @Transactional
     public UserResponseDTO updateUser(Long userId, UserDTO userCreationDTO, Long currentUserId) {
         if (!userId.equals(currentUserId)) {
             throw new UnauthorizedAccessException("You are not authorized to update this resource.");
@@ -70,26 +99,49 @@ public class UserService implements UserDetailsService {
             throw new UserAlreadyExistsException("Email is already in use.");
         }
 
+        boolean credentialsChanged = !user.getEmail().equals(userCreationDTO.getEmail());
+
         user.setName(userCreationDTO.getName());
         user.setEmail(userCreationDTO.getEmail());
 
         if (userCreationDTO.getPassword() != null && !userCreationDTO.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userCreationDTO.getPassword()));
+            credentialsChanged = true;
+        }
+
+        if (credentialsChanged) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
         }
 
         User updatedUser = userRepository.save(user);
+        if (credentialsChanged) {
+            eventPublisher.publishEvent(
+                    TokenVersionChange.updated(updatedUser.getId(), updatedUser.getTokenVersion()));
+            refreshTokenRepository.revokeAllByUserId(updatedUser.getId(), LocalDateTime.now());
+        }
         return convertToDTO(updatedUser);
     }
 
+    @Transactional
     public void deleteUser(Long userId, Long currentUserId) {
         if (!userId.equals(currentUserId)) {
             throw new UnauthorizedAccessException("You are not authorized to delete this resource.");
         }
 
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException(USER_NOT_FOUND + userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .filter(existing -> existing.getDeletedAt() == null)
+                .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND + userId));
+
+        // Notes are purged in the background by AccountPurgeService; the account is unusable from here
+        // on, and renaming the email frees it for a new registration.
+        LocalDateTime now = LocalDateTime.now();
+        user.setDeletedAt(now);
+        user.setEmail("deleted-" + userId + "@deleted.invalid");
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        refreshTokenRepository.deleteByUserId(userId);
+        accountDeletionRepository.save(new AccountDeletion(userId, now, 0, null, null));
+        eventPublisher.publishEvent(TokenVersionChange.revoked(userId));
     }
 
     private UserResponseDTO convertToDTO(User user) {
@@ -34,14 +34,26 @@ public class ApiResponseBuilder {
         return response;
     }
 
-    public static Map<String, Object> buildLoginResponse(String token, Long userId, String userName, String userEmail) {
+    public static Map<String, Object> buildLoginResponse(String token, String refreshToken, Long userId,
+            String userName, String userEmail) {
+        return buildTokenResponse("Login successful", token, refreshToken, userId, userName, userEmail);
+    }
+
+    public static Map<String, Object> buildRefreshResponse(String token, String refreshToken, Long userId,
+            String userName, String userEmail) {
+        return buildTokenResponse("Token refreshed", token, refreshToken, userId, userName, userEmail);
+    }
+
+    private static Map<String, Object> buildTokenResponse(String message, String token, String refreshToken,
+            Long userId, String userName, String userEmail) {
         Map<String, Object> response = new LinkedHashMap<>();
         response.put(TIMESTAMP_KEY, getCurrentTimestamp());
         response.put(STATUS_KEY, 200);
-        response.put(MESSAGE_KEY, "Login successful");
+        response.put(MESSAGE_KEY, message);
 
         Map<String, Object> data = new LinkedHashMap<>();
         data.put("token", token);
+        data.put("refreshToken", refreshToken);
 
         Map<String, Object> user = new LinkedHashMap<>();
         user.put("id", userId);
@@ -0,0 +1,38 @@
+package dev.leandroschillreff.do_it.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import dev.leandroschillreff.do_it.entity.Note;
+import dev.leandroschillreff.do_it.exception.InvalidCursorException;
+
+public record NoteCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static NoteCursor of(Note note) {
+        return new NoteCursor(note.getCreatedAt(), note.getId());
+    }
+
+    public static NoteCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid pagination cursor.");
+            }
+            return new NoteCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
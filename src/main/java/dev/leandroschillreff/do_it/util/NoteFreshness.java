@@ -0,0 +1,62 @@
+package dev.leandroschillreff.do_it.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+import dev.leandroschillreff.do_it.exception.PreconditionFailedException;
+
+public record NoteFreshness(String eTag, long lastModified) {
+
+    private static final String STALE_VERSION = "The note was modified since the given ETag.";
+
+    /**
+     * Validators of the note as it is about to be sent, so the ETag always describes the body.
+     */
+    public static NoteFreshness ofNote(NoteResponseDTO note) {
+        LocalDateTime lastModified = note.getUpdatedAt() != null ? note.getUpdatedAt() : note.getCreatedAt();
+        return ofVersion(note.getId(), note.getVersion(), lastModified);
+    }
+
+    public static NoteFreshness ofVersion(Long noteId, long version, LocalDateTime lastModified) {
+        return new NoteFreshness(noteETag(noteId, version), toEpochMillis(lastModified));
+    }
+
+    /**
+     * Every write raises the highest change sequence of the remaining notes except deletes, which lower
+     * the count, so the pair changes whenever the list does. There is no Last-Modified: deleting a note
+     * changes the list without moving any timestamp left in it.
+     */
+    public static NoteFreshness ofCollection(long count, long lastChangeSeq) {
+        return new NoteFreshness("\"c-" + count + "-" + lastChangeSeq + "\"", -1);
+    }
+
+    public static String noteETag(Long noteId, long version) {
+        return "\"" + noteId + "-" + version + "\"";
+    }
+
+    /**
+     * Returns the note version an If-Match header expects, or null when the header is absent or "*".
+     */
+    public static Long expectedVersion(Long noteId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String eTag = ifMatch.trim();
+        String prefix = "\"" + noteId + "-";
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || eTag.length() <= prefix.length() + 1) {
+            throw new PreconditionFailedException(STALE_VERSION);
+        }
+
+        try {
+            return Long.valueOf(eTag.substring(prefix.length(), eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(STALE_VERSION);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package dev.leandroschillreff.do_it.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.entity.RefreshToken;
+import dev.leandroschillreff.do_it.repository.RefreshTokenRepository;
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:authcontroller;DB_CLOSE_DELAY=-1")
+class AuthControllerTests extends ApiTestSupport {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rotatesRefreshTokenOnEveryUse() throws Exception {
+        JsonNode login = logIn(register("rotation"), PASSWORD);
+
+        JsonNode refreshed = refresh(login.path("refreshToken").asText(), 200);
+        assertThat(refreshed.path("refreshToken").asText()).isNotEqualTo(login.path("refreshToken").asText());
+        assertThat(refreshed.path("user").path("id").asLong()).isEqualTo(login.path("user").path("id").asLong());
+        exchange(bearer(refreshed.path("token").asText()), HttpMethod.GET, "/api/notes", null, 200);
+
+        JsonNode again = refresh(refreshed.path("refreshToken").asText(), 200);
+        assertThat(again.path("refreshToken").asText()).isNotEqualTo(refreshed.path("refreshToken").asText());
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesWholeFamily() throws Exception {
+        String email = register("reuse");
+        JsonNode login = logIn(email, PASSWORD);
+        JsonNode otherDevice = logIn(email, PASSWORD);
+        String rotated = login.path("refreshToken").asText();
+        String current = refresh(rotated, 200).path("refreshToken").asText();
+        double reusesBefore = meterRegistry.counter("auth.refresh.reuse_detected").count();
+
+        refresh(rotated, 401);
+
+        // The revocation commits although rotate() fails, so the token issued before the reuse is dead too.
+        refresh(current, 401);
+        assertThat(meterRegistry.counter("auth.refresh.reuse_detected").count()).isGreaterThan(reusesBefore);
+        List<RefreshToken> tokens = tokensOf(login.path("user").path("id").asLong());
+        String family = tokens.stream()
+                .filter(token -> token.getUsedAt() != null)
+                .map(RefreshToken::getFamilyId)
+                .findFirst()
+                .orElseThrow();
+        assertThat(tokens).filteredOn(token -> token.getFamilyId().equals(family))
+                .hasSize(2)
+                .allSatisfy(token -> assertThat(token.getRevokedAt()).isNotNull());
+        refresh(otherDevice.path("refreshToken").asText(), 200);
+    }
+
+    @Test
+    void rejectsExpiredRefreshToken() throws Exception {
+        JsonNode login = logIn(register("expiry"), PASSWORD);
+        List<RefreshToken> tokens = tokensOf(login.path("user").path("id").asLong());
+        tokens.forEach(token -> token.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+        refreshTokenRepository.saveAll(tokens);
+
+        refresh(login.path("refreshToken").asText(), 401);
+    }
+
+    @Test
+    void logoutRevokesRefreshToken() throws Exception {
+        JsonNode login = logIn(register("logout"), PASSWORD);
+        String current = refresh(login.path("refreshToken").asText(), 200).path("refreshToken").asText();
+
+        exchange(null, HttpMethod.POST, "/api/auth/logout", refreshBody(login.path("refreshToken").asText()), 204);
+
+        refresh(current, 401);
+        exchange(null, HttpMethod.POST, "/api/auth/logout", refreshBody("unknown"), 204);
+    }
+
+    @Test
+    void changingPasswordRevokesAccessAndRefreshTokens() throws Exception {
+        String email = register("credentials");
+        JsonNode login = logIn(email, PASSWORD);
+        String authorization = bearer(login.path("token").asText());
+        long userId = login.path("user").path("id").asLong();
+
+        exchange(authorization, HttpMethod.PUT, "/api/users/" + userId,
+                "{\"name\":\"credentials\",\"email\":\"" + email + "\",\"password\":\"newPassword123\"}", 200);
+
+        refresh(login.path("refreshToken").asText(), 401);
+        exchange(authorization, HttpMethod.GET, "/api/notes", null, 401);
+        refresh(logIn(email, "newPassword123").path("refreshToken").asText(), 200);
+    }
+
+    @Test
+    void changingEmailRejectsCachedAccessTokenOnceCommitted() throws Exception {
+        String email = register("email-change");
+        JsonNode login = logIn(email, PASSWORD);
+        String authorization = bearer(login.path("token").asText());
+        long userId = login.path("user").path("id").asLong();
+        // Caches the current token version, which the change has to replace.
+        exchange(authorization, HttpMethod.GET, "/api/notes", null, 200);
+
+        String newEmail = "changed-" + email;
+        exchange(authorization, HttpMethod.PUT, "/api/users/" + userId,
+                "{\"name\":\"email-change\",\"email\":\"" + newEmail + "\",\"password\":\"" + PASSWORD + "\"}", 200);
+
+        exchange(authorization, HttpMethod.GET, "/api/notes", null, 401);
+        exchange(bearer(logIn(newEmail, PASSWORD).path("token").asText()), HttpMethod.GET, "/api/notes", null, 200);
+    }
+
+    private JsonNode refresh(String refreshToken, int expectedStatus) throws Exception {
+        return exchange(null, HttpMethod.POST, "/api/auth/refresh", refreshBody(refreshToken), expectedStatus);
+    }
+
+    private List<RefreshToken> tokensOf(long userId) {
+        return refreshTokenRepository.findAll().stream()
+                .filter(token -> token.getUserId() == userId)
+                .toList();
+    }
+
+    private static String refreshBody(String refreshToken) {
+        return "{\"refreshToken\":\"" + refreshToken + "\"}";
+    }
+}
\ No newline at end of file
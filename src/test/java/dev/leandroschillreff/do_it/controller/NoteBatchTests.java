@@ -0,0 +1,102 @@
+package dev.leandroschillreff.do_it.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:notebatch;DB_CLOSE_DELAY=-1")
+class NoteBatchTests extends ApiTestSupport {
+
+    private String authorization;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        authorization = signUp("batch");
+    }
+
+    @Test
+    void reportsEachOperationOnItsOwn() throws Exception {
+        long noteId = createNote(authorization, "Original", "Body");
+        long version = note(authorization, noteId).path("version").asLong();
+
+        JsonNode results = batch(authorization,
+                Map.of("type", "CREATE", "title", "Created", "description", "Body"),
+                Map.of("type", "CREATE", "title", " ", "description", "Body"),
+                Map.of("type", "UPDATE", "noteId", noteId, "version", version,
+                        "title", "Edited", "description", "Body"),
+                Map.of("type", "COMPLETE", "noteId", noteId, "version", version),
+                Map.of("type", "COMPLETE", "noteId", noteId, "version", version + 1),
+                Map.of("type", "UNCOMPLETE", "noteId", Long.MAX_VALUE));
+
+        assertThat(results.findValues("status")).extracting(JsonNode::asInt)
+                .containsExactly(201, 400, 200, 412, 200, 404);
+        assertThat(results.get(0).path("note").path("id").asLong()).isPositive();
+        assertThat(results.get(4).path("note").path("version").asLong()).isEqualTo(version + 2);
+        JsonNode stored = note(authorization, noteId);
+        assertThat(stored.path("title").asText()).isEqualTo("Edited");
+        assertThat(stored.path("completedAt").isTextual()).isTrue();
+        assertThat(stored.path("version").asLong()).isEqualTo(version + 2);
+    }
+
+    @Test
+    void leavesNotesOfOtherUsersAlone() throws Exception {
+        String owner = signUp("batch-owner");
+        long foreignId = createNote(owner, "Foreign", "Body");
+
+        JsonNode results = batch(authorization,
+                Map.of("type", "UPDATE", "noteId", foreignId, "title", "Taken", "description", "Body"),
+                Map.of("type", "COMPLETE", "noteId", foreignId),
+                Map.of("type", "DELETE", "noteId", foreignId, "version", 0));
+
+        assertThat(results.findValues("status")).extracting(JsonNode::asInt).containsExactly(403, 403, 403);
+        JsonNode stored = note(owner, foreignId);
+        assertThat(stored.path("title").asText()).isEqualTo("Foreign");
+        assertThat(stored.path("completedAt").isNull()).isTrue();
+        assertThat(stored.path("version").asLong()).isZero();
+    }
+
+    @Test
+    void writesTombstonesForDeletedNotes() throws Exception {
+        long first = createNote(authorization, "First", "Body");
+        long second = createNote(authorization, "Second", "Body");
+        long kept = createNote(authorization, "Kept", "Body");
+        long syncToken = changes(0).path("syncToken").asLong();
+
+        JsonNode results = batch(authorization,
+                Map.of("type", "DELETE", "noteId", second),
+                Map.of("type", "DELETE", "noteId", kept, "version", 1),
+                Map.of("type", "DELETE", "noteId", first, "version", 0),
+                Map.of("type", "DELETE", "noteId", second));
+
+        assertThat(results.findValues("status")).extracting(JsonNode::asInt).containsExactly(204, 412, 204, 404);
+        JsonNode changes = changes(syncToken);
+        assertThat(changes.path("deletedNoteIds")).extracting(JsonNode::asLong).containsExactly(second, first);
+        assertThat(changes.path("notes")).isEmpty();
+        exchange(authorization, HttpMethod.GET, "/api/notes/" + first, null, 404);
+        note(authorization, kept);
+    }
+
+    private JsonNode batch(String authorization, Map<?, ?>... operations) throws Exception {
+        String content = objectMapper.writeValueAsString(Map.of("operations", List.of(operations)));
+        return exchange(authorization, HttpMethod.POST, "/api/notes/batch", content, 200);
+    }
+
+    private JsonNode note(String authorization, long noteId) throws Exception {
+        return exchange(authorization, HttpMethod.GET, "/api/notes/" + noteId, null, 200);
+    }
+
+    private JsonNode changes(long since) throws Exception {
+        return data(perform(authorization, request(HttpMethod.GET, "/api/notes/changes")
+                .param("since", String.valueOf(since)), 200));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package dev.leandroschillreff.do_it.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:notecontroller;DB_CLOSE_DELAY=-1")
+class NoteControllerTests extends ApiTestSupport {
+
+    private static final String EDITED = "{\"title\":\"Edited\",\"description\":\"Body\"}";
+    private static final String QUERY_COUNT = "X-Query-Count";
+
+    private String authorization;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        authorization = signUp("notes");
+    }
+
+    @Test
+    void updatesOnlyWhenIfMatchNamesCurrentVersion() throws Exception {
+        long noteId = createNote("Original");
+        String path = "/api/notes/" + noteId;
+        String eTag = perform(request(HttpMethod.GET, path), 200).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse updated = perform(request(HttpMethod.PUT, path).content(EDITED)
+                .header(HttpHeaders.IF_MATCH, eTag), 200);
+        String newETag = updated.getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+        assertThat(perform(request(HttpMethod.GET, path), 200).getHeader(HttpHeaders.ETAG)).isEqualTo(newETag);
+
+        perform(request(HttpMethod.PUT, path).content(EDITED).header(HttpHeaders.IF_MATCH, eTag), 412);
+        perform(request(HttpMethod.PATCH, path + "/complete").header(HttpHeaders.IF_MATCH, eTag), 412);
+        assertThat(data(perform(request(HttpMethod.GET, path), 200)).path("completedAt").isNull()).isTrue();
+
+        JsonNode completed = data(perform(request(HttpMethod.PATCH, path + "/complete")
+                .header(HttpHeaders.IF_MATCH, newETag), 200));
+        assertThat(completed.path("completedAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedOrForeignIfMatch() throws Exception {
+        long noteId = createNote("First");
+        long otherId = createNote("Second");
+        String path = "/api/notes/" + noteId;
+        String otherETag = perform(request(HttpMethod.GET, "/api/notes/" + otherId), 200)
+                .getHeader(HttpHeaders.ETAG);
+
+        perform(request(HttpMethod.PUT, path).content(EDITED).header(HttpHeaders.IF_MATCH, otherETag), 412);
+        perform(request(HttpMethod.PUT, path).content(EDITED).header(HttpHeaders.IF_MATCH, "\"garbage\""), 412);
+        perform(request(HttpMethod.PATCH, path + "/uncomplete").header(HttpHeaders.IF_MATCH, "W/\"1\""), 412);
+    }
+
+    @Test
+    void appliesUnconditionallyWithoutIfMatchOrWithWildcard() throws Exception {
+        long noteId = createNote("Unconditional");
+        String path = "/api/notes/" + noteId;
+
+        perform(request(HttpMethod.PUT, path).content(EDITED), 200);
+        perform(request(HttpMethod.PATCH, path + "/complete").header(HttpHeaders.IF_MATCH, "*"), 200);
+        perform(request(HttpMethod.PATCH, path + "/uncomplete"), 200);
+    }
+
+    @Test
+    void answersUnchangedConditionalGetsFromTheIndexAlone() throws Exception {
+        long noteId = createNote("Cached");
+        long otherId = createNote("Deleted");
+        String path = "/api/notes/" + noteId;
+        String listETag = perform(request(HttpMethod.GET, "/api/notes"), 200).getHeader(HttpHeaders.ETAG);
+        String noteETag = perform(request(HttpMethod.GET, path), 200).getHeader(HttpHeaders.ETAG);
+
+        // The token version is cached by now, so the validator lookup is the only statement left.
+        MockHttpServletResponse unchangedList = perform(request(HttpMethod.GET, "/api/notes")
+                .header(HttpHeaders.IF_NONE_MATCH, listETag), 304);
+        assertThat(unchangedList.getHeader(QUERY_COUNT)).isEqualTo("1");
+        MockHttpServletResponse unchangedNote = perform(request(HttpMethod.GET, path)
+                .header(HttpHeaders.IF_NONE_MATCH, noteETag), 304);
+        assertThat(unchangedNote.getHeader(QUERY_COUNT)).isEqualTo("1");
+
+        perform(request(HttpMethod.PATCH, path + "/complete"), 200);
+        MockHttpServletResponse changedNote = perform(request(HttpMethod.GET, path)
+                .header(HttpHeaders.IF_NONE_MATCH, noteETag), 200);
+        assertThat(changedNote.getHeader(HttpHeaders.ETAG)).isNotEqualTo(noteETag);
+        assertThat(data(changedNote).path("completedAt").isTextual()).isTrue();
+        String completedListETag = perform(request(HttpMethod.GET, "/api/notes")
+                .header(HttpHeaders.IF_NONE_MATCH, listETag), 200).getHeader(HttpHeaders.ETAG);
+
+        perform(request(HttpMethod.DELETE, "/api/notes/" + otherId), 204);
+        JsonNode remaining = data(perform(request(HttpMethod.GET, "/api/notes")
+                .header(HttpHeaders.IF_NONE_MATCH, completedListETag), 200));
+        assertThat(remaining.findValues("id")).extracting(JsonNode::asLong).containsExactly(noteId);
+    }
+
+    @Test
+    void pagesThroughNotesInCreationOrderWithCursor() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createNote("Note " + i));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = request(HttpMethod.GET, "/api/notes/page").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = data(perform(request, 200));
+            page.path("notes").findValues("id").forEach(id -> seen.add(id.asLong()));
+            cursor = page.path("nextCursor").textValue();
+            assertThat(page.path("hasMore").asBoolean()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(created);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void filtersPagesAndRejectsInvalidCursor() throws Exception {
+        createNote("Open");
+        long done = createNote("Done");
+        perform(request(HttpMethod.PATCH, "/api/notes/" + done + "/complete"), 200);
+
+        JsonNode page = data(perform(request(HttpMethod.GET, "/api/notes/page").param("completed", "true"), 200));
+        assertThat(page.path("notes").findValues("id")).extracting(JsonNode::asLong).containsExactly(done);
+        assertThat(page.path("hasMore").asBoolean()).isFalse();
+
+        perform(request(HttpMethod.GET, "/api/notes/page").param("cursor", "not-a-cursor"), 400);
+    }
+
+    private long createNote(String title) throws Exception {
+        return createNote(authorization, title, "Body");
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request, int expectedStatus)
+            throws Exception {
+        return perform(authorization, request, expectedStatus);
+    }
+}
\ No newline at end of file
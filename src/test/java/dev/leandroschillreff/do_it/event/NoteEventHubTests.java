@@ -0,0 +1,181 @@
+package dev.leandroschillreff.do_it.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import dev.leandroschillreff.do_it.exception.TooManySubscriptionsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NoteEventHubTests {
+
+    private static final JsonMapper JSON = JsonMapper.builder().findAndAddModules().build();
+
+    private final LocalNoteEventBroker broker = new LocalNoteEventBroker();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Drain tasks wait here until the test runs them, which stands in for a client that reads slowly.
+    private final Queue<Runnable> drains = new ArrayDeque<>();
+    private NoteEventHub hub;
+
+    @BeforeEach
+    void createHub() {
+        hub = new NoteEventHub(broker, meterRegistry, drains::add, 2, 5, Duration.ofMinutes(30), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void shutDownHub() {
+        hub.shutdown();
+    }
+
+    @Test
+    void sendsTheChangeSequenceAsIdAndInThePayload() {
+        RecordingEmitter emitter = subscribe(1L);
+
+        broker.publish(NoteEvent.deleted(1L, 10L, 42));
+        broker.publish(NoteEvent.deleted(2L, 20L, 43));
+        runDrains();
+
+        assertThat(emitter.sent).singleElement().satisfies(frame -> assertThat(frame)
+                .startsWith("id:42\nevent:deleted\ndata:")
+                .contains("\"noteId\":10", "\"changeSeq\":42"));
+    }
+
+    @Test
+    void replacesDroppedEventsWithOneResync() {
+        RecordingEmitter emitter = subscribe(1L);
+
+        for (long changeSeq = 1; changeSeq <= 4; changeSeq++) {
+            broker.publish(NoteEvent.deleted(1L, changeSeq, changeSeq));
+        }
+        assertThat(drains).hasSize(1);
+        assertThat(meterRegistry.counter("notes.events.dropped").count()).isEqualTo(2);
+
+        runDrains();
+        assertThat(emitter.sent).extracting(NoteEventHubTests::label)
+                .containsExactly(NoteEventSubscriber.RESYNC_EVENT, "3", "4");
+
+        broker.publish(NoteEvent.deleted(1L, 5L, 5));
+        runDrains();
+        assertThat(emitter.sent).extracting(NoteEventHubTests::label)
+                .containsExactly(NoteEventSubscriber.RESYNC_EVENT, "3", "4", "5");
+    }
+
+    @Test
+    void capsOpenStreamsPerUser() {
+        for (int i = 0; i < 5; i++) {
+            subscribe(1L);
+        }
+
+        assertThatThrownBy(() -> subscribe(1L)).isInstanceOf(TooManySubscriptionsException.class);
+        subscribe(2L);
+        assertThat(subscriberGauge()).isEqualTo(6);
+    }
+
+    @Test
+    void releasesStreamsThatCompleteOrTimeOut() {
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            emitters.add(subscribe(1L));
+        }
+
+        emitters.get(0).completion.run();
+        emitters.get(1).timeout.run();
+        emitters.get(2).error.accept(new IllegalStateException("Connection reset"));
+        assertThat(emitters.get(1).completed).isTrue();
+        assertThat(subscriberGauge()).isEqualTo(2);
+
+        broker.publish(NoteEvent.deleted(1L, 10L, 10));
+        runDrains();
+        assertThat(emitters).extracting(emitter -> emitter.sent.size()).containsExactly(0, 0, 0, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            subscribe(1L);
+        }
+        assertThatThrownBy(() -> subscribe(1L)).isInstanceOf(TooManySubscriptionsException.class);
+        assertThat(subscriberGauge()).isEqualTo(5);
+    }
+
+    private RecordingEmitter subscribe(Long userId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(userId, emitter);
+        return emitter;
+    }
+
+    private void runDrains() {
+        Runnable drain;
+        while ((drain = drains.poll()) != null) {
+            drain.run();
+        }
+    }
+
+    private double subscriberGauge() {
+        return meterRegistry.get("notes.events.subscribers").gauge().value();
+    }
+
+    // The id of a note event, or the name of a resync event, which has no id.
+    private static String label(String frame) {
+        return frame.substring(frame.indexOf(':') + 1, frame.indexOf('\n'));
+    }
+
+    // Keeps what the hub sends and the callbacks it registers instead of handing them to a servlet response.
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private Runnable completion;
+        private Runnable timeout;
+        private Consumer<Throwable> error;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                frame.append(part.getData() instanceof String text ? text : toJson(part.getData()));
+            }
+            sent.add(frame.toString());
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        @Override
+        public synchronized void onTimeout(Runnable callback) {
+            timeout = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            error = callback;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        private static String toJson(Object data) {
+            try {
+                return JSON.writeValueAsString(data);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package dev.leandroschillreff.do_it.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querystats;DB_CLOSE_DELAY=-1",
+        "query-stats.budget.endpoints=GET /api/notes=3,GET /api/notes/page=0"
+})
+class QueryStatsFilterTests extends ApiTestSupport {
+
+    private String authorization;
+    private long noteId;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        authorization = signUp("query-stats");
+        noteId = createNote(authorization, "Budget", "Counted");
+    }
+
+    @Test
+    void reportsStatementCountWithinBudget() throws Exception {
+        MockHttpServletResponse response = perform(authorization, request(HttpMethod.GET, "/api/notes"), 200);
+
+        String count = response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER);
+        assertThat(count).isNotNull();
+        assertThat(Integer.parseInt(count)).isBetween(1, 3);
+        assertThat(response.getHeader(QueryStatsFilter.SERVER_TIMING_HEADER)).startsWith("db;dur=");
+    }
+
+    @Test
+    void failsRequestOverBudgetBeforeItsBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = perform(authorization, request(HttpMethod.GET, "/api/notes/page"), 500);
+
+        assertThat(Integer.parseInt(response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER))).isPositive();
+        assertThat(data(response).isMissingNode()).isTrue();
+        assertThat(objectMapper.readTree(response.getContentAsString()).path("status").asInt()).isEqualTo(500);
+    }
+
+    @Test
+    void writesSingleNotesInOneStatement() throws Exception {
+        // The note was created with this token, so its version is cached and only the write itself is counted.
+        for (String path : new String[] { "/complete", "/uncomplete" }) {
+            MockHttpServletResponse response = perform(authorization,
+                    request(HttpMethod.PATCH, "/api/notes/" + noteId + path), 200);
+            assertThat(response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER)).isEqualTo("1");
+        }
+        MockHttpServletResponse updated = perform(authorization, request(HttpMethod.PUT, "/api/notes/" + noteId)
+                .content("{\"title\":\"Budget\",\"description\":\"Edited\"}"), 200);
+        assertThat(updated.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER)).isEqualTo("1");
+
+        MockHttpServletResponse deleted = perform(authorization,
+                request(HttpMethod.DELETE, "/api/notes/" + noteId), 204);
+        assertThat(deleted.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    void countsQueriesRunThroughJdbcTemplate() throws Exception {
+        // No note matches, so the search engine's JdbcTemplate query is the only one left to count.
+        MockHttpServletResponse response = perform(authorization,
+                request(HttpMethod.GET, "/api/notes/search").param("q", "nothing"), 200);
+
+        assertThat(Integer.parseInt(response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER))).isPositive();
+    }
+
+    @Test
+    void sendsBatchCreatesAsOneJdbcBatch() throws Exception {
+        StringBuilder operations = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < 40; i++) {
+            operations.append(i == 0 ? "" : ",")
+                    .append("{\"type\":\"CREATE\",\"title\":\"Batch ").append(i)
+                    .append("\",\"description\":\"Batched\"}");
+        }
+        operations.append("]}");
+
+        MockHttpServletResponse response = perform(authorization,
+                request(HttpMethod.POST, "/api/notes/batch").content(operations.toString()), 200);
+
+        // Forty inserts stay one statement as long as nothing reads a generated value back per row.
+        assertThat(Integer.parseInt(response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER)))
+                .isLessThanOrEqualTo(6);
+    }
+}
\ No newline at end of file
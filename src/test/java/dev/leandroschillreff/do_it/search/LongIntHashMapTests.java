@@ -0,0 +1,67 @@
+package dev.leandroschillreff.do_it.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTests {
+
+    @Test
+    void putsReplacesAndRemovesEntries() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(7, 1);
+        map.put(7, 2);
+
+        assertThat(map.get(7)).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.remove(7)).isEqualTo(2);
+        assertThat(map.remove(7)).isEqualTo(LongIntHashMap.MISSING);
+        assertThat(map.get(7)).isEqualTo(LongIntHashMap.MISSING);
+        assertThat(map.size()).isZero();
+        assertThatThrownBy(() -> map.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsEveryEntryAcrossResizes() {
+        LongIntHashMap map = new LongIntHashMap();
+        long initialBytes = map.sizeInBytes();
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(key(i), i);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(map.sizeInBytes()).isGreaterThan(initialBytes);
+        for (int i = 1; i <= 10_000; i++) {
+            assertThat(map.get(key(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void findsRemainingKeysAfterRemovalsInsideProbeSequences() {
+        LongIntHashMap map = new LongIntHashMap();
+        // A dense table: at 3/4 load most keys sit in a probe run that a removal has to close.
+        for (int i = 1; i <= 12; i++) {
+            map.put(key(i), i);
+        }
+        for (int i = 1; i <= 12; i += 2) {
+            assertThat(map.remove(key(i))).isEqualTo(i);
+        }
+
+        assertThat(map.size()).isEqualTo(6);
+        for (int i = 1; i <= 12; i++) {
+            assertThat(map.get(key(i))).isEqualTo(i % 2 == 0 ? i : LongIntHashMap.MISSING);
+        }
+        for (int i = 1; i <= 12; i += 2) {
+            map.put(key(i), -i);
+        }
+        for (int i = 1; i <= 12; i++) {
+            assertThat(map.get(key(i))).isEqualTo(i % 2 == 0 ? i : -i);
+        }
+    }
+
+    // Spread keys so they do not land in consecutive slots by accident.
+    private static long key(int i) {
+        return i * 1_000_003L;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package dev.leandroschillreff.do_it.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:notesearch;DB_CLOSE_DELAY=-1")
+class NoteSearchTests extends ApiTestSupport {
+
+    @Test
+    void ranksTitleMatchesFirstAndOnlyReturnsOwnNotes() throws Exception {
+        String alice = signUp("alice");
+        String bob = signUp("bob");
+        long inDescription = createNote(alice, "Groceries", "Buy milk for the weekly meeting");
+        long inTitle = createNote(alice, "Weekly meeting", "Agenda");
+        createNote(alice, "Dentist", "Tuesday");
+        createNote(bob, "Weekly meeting", "Someone else's note");
+
+        assertThat(search(alice, "weekly MEETING")).containsExactly(inTitle, inDescription);
+        assertThat(search(alice, "meeting dentist")).isEmpty();
+        assertThat(search(alice, "100%")).isEmpty();
+        assertThat(search(bob, "groceries")).isEmpty();
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletesImmediately() throws Exception {
+        String carol = signUp("carol");
+        long noteId = createNote(carol, "Draft", "Quarterly report");
+        assertThat(search(carol, "quarterly")).containsExactly(noteId);
+
+        exchange(carol, HttpMethod.PUT, "/api/notes/" + noteId,
+                "{\"title\":\"Draft\",\"description\":\"Annual report\"}", 200);
+        assertThat(search(carol, "quarterly")).isEmpty();
+        assertThat(search(carol, "annual")).containsExactly(noteId);
+
+        exchange(carol, HttpMethod.DELETE, "/api/notes/" + noteId, null, 204);
+        assertThat(search(carol, "annual")).isEmpty();
+    }
+
+    private List<Long> search(String authorization, String query) throws Exception {
+        JsonNode results = data(perform(authorization, request(HttpMethod.GET, "/api/notes/search").param("q", query),
+                200));
+        return results.path("notes").findValues("id").stream().map(JsonNode::asLong).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package dev.leandroschillreff.do_it.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostingListTests {
+
+    @Test
+    void roundTripsDeltasAcrossVarintByteBoundaries() {
+        // The largest and smallest deltas of one to five bytes, starting from the implicit doc -1.
+        int[] deltas = { 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152, 268_435_455, 268_435_456 };
+        int[] docs = new int[deltas.length];
+        PostingList list = new PostingList();
+        int doc = -1;
+        for (int i = 0; i < deltas.length; i++) {
+            doc += deltas[i];
+            docs[i] = doc;
+            list.add(doc, i + 1);
+        }
+        list.trim();
+
+        List<int[]> read = readAll(list);
+        assertThat(read).hasSize(docs.length);
+        for (int i = 0; i < docs.length; i++) {
+            assertThat(read.get(i)).containsExactly(docs[i], i + 1);
+        }
+        assertThat(list.size()).isEqualTo(docs.length);
+        assertThat(list.sizeInBytes()).isEqualTo(1 + 1 + 2 + 2 + 3 + 3 + 4 + 4 + 5 + deltas.length);
+    }
+
+    @Test
+    void capsWeightsAtOneByte() {
+        PostingList list = new PostingList();
+        list.add(3, 255);
+        list.add(4, 1000);
+
+        assertThat(readAll(list)).extracting(entry -> entry[1]).containsExactly(255, 255);
+    }
+
+    @Test
+    void rejectsDocsOutOfOrder() {
+        PostingList list = new PostingList();
+        list.add(5, 1);
+
+        assertThatThrownBy(() -> list.add(5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> list.add(4, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(readAll(list)).hasSize(1);
+    }
+
+    private static List<int[]> readAll(PostingList list) {
+        List<int[]> entries = new ArrayList<>();
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            entries.add(new int[] { cursor.doc(), cursor.weight() });
+        }
+        return entries;
+    }
+}
\ No newline at end of file
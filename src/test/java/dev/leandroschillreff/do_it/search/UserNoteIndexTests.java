@@ -0,0 +1,99 @@
+package dev.leandroschillreff.do_it.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class UserNoteIndexTests {
+
+    @Test
+    void matchesEveryTermAndRanksTitleMatchesFirst() {
+        UserNoteIndex index = new UserNoteIndex();
+        index.put(1, 1, "Groceries", "Milk and eggs");
+        index.put(2, 2, "Weekend", "Groceries after work");
+        index.put(3, 3, "Work", "Quarterly report");
+
+        assertThat(index.search(List.of("groceries"), 10, 0)).containsExactly(1L, 2L);
+        assertThat(index.search(List.of("groceries", "work"), 10, 0)).containsExactly(2L);
+        assertThat(index.search(List.of("groceries"), 1, 1)).containsExactly(2L);
+        assertThat(index.search(List.of("groceries", "missing"), 10, 0)).isEmpty();
+    }
+
+    @Test
+    void ignoresChangesOlderThanTheIndexedOne() {
+        UserNoteIndex index = new UserNoteIndex();
+        index.put(1, 5, "Current", "Body");
+
+        index.put(1, 4, "Outdated", "Body");
+        index.remove(1, 3);
+        assertThat(index.search(List.of("current"), 10, 0)).containsExactly(1L);
+        assertThat(index.search(List.of("outdated"), 10, 0)).isEmpty();
+
+        index.remove(1, 6);
+        index.put(1, 5, "Current", "Body");
+        assertThat(index.search(List.of("current"), 10, 0)).isEmpty();
+        assertThat(index.noteCount()).isZero();
+
+        // A deletion can arrive before the create it follows.
+        index.remove(2, 8);
+        index.put(2, 7, "Created", "Body");
+        assertThat(index.search(List.of("created"), 10, 0)).isEmpty();
+
+        index.put(1, 9, "Restored", "Body");
+        assertThat(index.search(List.of("restored"), 10, 0)).containsExactly(1L);
+    }
+
+    @Test
+    void runsTheLoaderOnlyOnce() {
+        UserNoteIndex index = new UserNoteIndex();
+        AtomicInteger loads = new AtomicInteger();
+
+        index.loadOnce(target -> {
+            loads.incrementAndGet();
+            target.put(1, 1, "Loaded", "Body");
+        });
+        index.loadOnce(target -> loads.incrementAndGet());
+
+        assertThat(loads).hasValue(1);
+        assertThat(index.search(List.of("loaded"), 10, 0)).containsExactly(1L);
+    }
+
+    @Test
+    void compactsOnceHalfTheDocsAreDeleted() {
+        UserNoteIndex index = new UserNoteIndex();
+        for (int noteId = 1; noteId <= 100; noteId++) {
+            index.put(noteId, noteId, "Note", "Body " + noteId);
+        }
+        for (int noteId = 1; noteId <= 49; noteId++) {
+            index.remove(noteId, 100 + noteId);
+        }
+        assertThat(index.docCount()).isEqualTo(100);
+
+        index.remove(50, 150);
+        assertThat(index.docCount()).isEqualTo(50);
+        assertThat(index.noteCount()).isEqualTo(50);
+        assertThat(index.search(List.of("note"), 100, 0)).hasSize(50).allMatch(noteId -> noteId > 50);
+        assertThat(index.search(List.of("75"), 10, 0)).containsExactly(75L);
+    }
+
+    @Test
+    void waitsForEnoughDeletedDocsBeforeCompacting() {
+        UserNoteIndex index = new UserNoteIndex();
+        for (int noteId = 1; noteId <= 40; noteId++) {
+            index.put(noteId, noteId, "Note", "Body");
+        }
+        // Updates leave the replaced doc behind just like deletes do.
+        index.put(1, 101, "Note", "Edited");
+        for (int noteId = 2; noteId <= 31; noteId++) {
+            index.remove(noteId, 100 + noteId);
+        }
+        assertThat(index.docCount()).isEqualTo(41);
+
+        index.remove(32, 132);
+        assertThat(index.docCount()).isEqualTo(9);
+        assertThat(index.search(List.of("note"), 100, 0)).hasSize(9).contains(1L).doesNotContain(32L);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package dev.leandroschillreff.do_it.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import dev.leandroschillreff.do_it.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Blocks every hash until {@link #release} opens, like a slow BCrypt that ignores interrupts.
+     */
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashing.countDown();
+            boolean released = false;
+            while (!released) {
+                try {
+                    released = release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // Keep hashing, as a real encoder would.
+                }
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @Test
+    void waitsForRunningHashAndDropsQueuedOneAfterMaxWait() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1,
+                Duration.ofMillis(100), meterRegistry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+            assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> encoder.encode("second")).isInstanceOf(PasswordHashingBusyException.class);
+            assertThat(meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value())
+                    .isZero();
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+            // The first hash has outlived maxWait, but it was running, so its caller still gets the result.
+            Thread.sleep(200);
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+            assertThat(encoder.encode("third")).isEqualTo("hashed:third");
+        }
+    }
+}
\ No newline at end of file
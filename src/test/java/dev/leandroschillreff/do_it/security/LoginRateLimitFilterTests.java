@@ -0,0 +1,109 @@
+package dev.leandroschillreff.do_it.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loginratelimit;DB_CLOSE_DELAY=-1",
+        "rate-limit.login.ip.capacity=4",
+        "rate-limit.login.email.capacity=2"
+})
+class LoginRateLimitFilterTests extends ApiTestSupport {
+
+    @Autowired
+    private LoginRateLimitFilter loginRateLimitFilter;
+
+    @Test
+    void throttlesRepeatedAttemptsForOneEmail() throws Exception {
+        String email = "victim-" + System.nanoTime() + "@do-it.dev";
+
+        logIn("10.0.1.1", email, 401);
+        logIn("10.0.1.2", email.toUpperCase(), 401);
+        MockHttpServletResponse rejected = logIn("10.0.1.3", " " + email + " ", 429);
+
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(rejected.getContentAsString()).contains("Too many login attempts");
+        logIn("10.0.1.3", "other-" + System.nanoTime() + "@do-it.dev", 401);
+    }
+
+    @Test
+    void throttlesRepeatedAttemptsFromOneAddress() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            logIn("10.0.2.1", "spray-" + i + "-" + System.nanoTime() + "@do-it.dev", 401);
+        }
+
+        MockHttpServletResponse rejected = logIn("10.0.2.1", "spray-last-" + System.nanoTime() + "@do-it.dev", 429);
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        logIn("10.0.2.2", "spray-last-" + System.nanoTime() + "@do-it.dev", 401);
+    }
+
+    @Test
+    void replaysBodyToNonBlockingReaders() throws Exception {
+        String body = "{\"email\":\"async-" + System.nanoTime() + "@do-it.dev\",\"password\":\"secret\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        AtomicReference<ServletRequest> forwarded = new AtomicReference<>();
+
+        loginRateLimitFilter.doFilter(request, new MockHttpServletResponse(),
+                (filtered, response) -> forwarded.set(filtered));
+
+        ServletInputStream input = forwarded.get().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[16];
+                while (input.isReady() && !input.isFinished()) {
+                    int length = input.read(buffer);
+                    if (length > 0) {
+                        read.write(buffer, 0, length);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(allRead.get()).isTrue();
+    }
+
+    private MockHttpServletResponse logIn(String remoteAddress, String email, int expectedStatus) throws Exception {
+        return perform(null, request(HttpMethod.POST, "/api/auth/login")
+                .content("{\"email\":\"" + email + "\",\"password\":\"wrongPassword\"}")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                }), expectedStatus);
+    }
+}
\ No newline at end of file
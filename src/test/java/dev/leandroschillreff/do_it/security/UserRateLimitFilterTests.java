@@ -0,0 +1,71 @@
+package dev.leandroschillreff.do_it.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userratelimit;DB_CLOSE_DELAY=-1",
+        "rate-limit.notes.read.capacity=3",
+        "rate-limit.notes.write.capacity=2",
+        "notes.max-per-user=1"
+})
+class UserRateLimitFilterTests extends ApiTestSupport {
+
+    private static final String NOTE = "{\"title\":\"Note\",\"description\":\"Body\"}";
+
+    private String authorization;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        authorization = signUp("quota");
+    }
+
+    @Test
+    void rejectsReadsOverQuotaWithRetryAfter() throws Exception {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            MockHttpServletResponse allowed = perform(HttpMethod.GET, "/api/notes", null, 200);
+            assertThat(allowed.getHeader("RateLimit-Limit")).isEqualTo("3");
+            assertThat(allowed.getHeader("RateLimit-Remaining")).isEqualTo(String.valueOf(remaining));
+        }
+
+        MockHttpServletResponse rejected = perform(HttpMethod.GET, "/api/notes", null, 429);
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(rejected.getContentAsString()).contains("Request rate limit exceeded");
+
+        // Writes draw from their own bucket.
+        perform(HttpMethod.POST, "/api/notes", NOTE, 201);
+    }
+
+    @Test
+    void capsWritesAndNotesPerUser() throws Exception {
+        perform(HttpMethod.POST, "/api/notes", NOTE, 201);
+        perform(HttpMethod.POST, "/api/notes", NOTE, 409);
+
+        MockHttpServletResponse rejected = perform(HttpMethod.POST, "/api/notes", NOTE, 429);
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        perform(HttpMethod.GET, "/api/notes", null, 200);
+    }
+
+    @Test
+    void limitsOnlyTheNotesPathAndItsChildren() throws Exception {
+        assertThat(perform(HttpMethod.GET, "/api/notes/page", null, 200).getHeader("RateLimit-Limit")).isEqualTo("3");
+        MockHttpServletResponse sibling = mockMvc.perform(request(HttpMethod.GET, "/api/notesX")
+                .header("Authorization", authorization))
+                .andReturn().getResponse();
+        assertThat(sibling.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    private MockHttpServletResponse perform(HttpMethod method, String path, String content, int expectedStatus)
+            throws Exception {
+        return perform(authorization, content == null ? request(method, path) : request(method, path).content(content),
+                expectedStatus);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package dev.leandroschillreff.do_it.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.entity.AccountDeletion;
+import dev.leandroschillreff.do_it.repository.AccountDeletionRepository;
+import dev.leandroschillreff.do_it.repository.NoteRepository;
+import dev.leandroschillreff.do_it.repository.UserRepository;
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// The scheduled run stays out of the way; the tests call the purge themselves.
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accountpurge;DB_CLOSE_DELAY=-1",
+        "accounts.purge.batch-size=2",
+        "accounts.purge.initial-delay=1h",
+        "accounts.purge.interval=1h"
+})
+class AccountPurgeServiceTests extends ApiTestSupport {
+
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+
+    @Autowired
+    private AccountDeletionRepository accountDeletionRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String email;
+    private JsonNode login;
+    private long userId;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        email = register("purge");
+        login = logIn(email, PASSWORD);
+        userId = login.path("user").path("id").asLong();
+    }
+
+    @Test
+    void purgesNotesAndTombstonesInSeveralBatches() throws Exception {
+        String authorization = authorization();
+        for (int i = 0; i < 5; i++) {
+            createNote(authorization, "Note " + i, "Body");
+        }
+        long deleted = createNote(authorization, "Deleted", "Body");
+        exchange(authorization, HttpMethod.DELETE, "/api/notes/" + deleted, null, 204);
+        deleteAccount(authorization);
+
+        accountPurgeService.purgePendingAccounts();
+
+        AccountDeletion deletion = deletion();
+        assertThat(deletion.getCompletedAt()).isNotNull();
+        assertThat(deletion.getClaimedUntil()).isNull();
+        assertThat(deletion.getNotesDeleted()).isEqualTo(5);
+        assertThat(count("notes")).isZero();
+        assertThat(count("note_tombstones")).isZero();
+        assertThat(userRepository.existsById(userId)).isFalse();
+    }
+
+    @Test
+    void reclaimsTheLeaseOfACrashedWorker() throws Exception {
+        String authorization = authorization();
+        for (int i = 0; i < 5; i++) {
+            createNote(authorization, "Note " + i, "Body");
+        }
+        deleteAccount(authorization);
+
+        // Another node claims the account, purges one batch and dies before the lease runs out.
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            assertThat(accountDeletionRepository.claim(userId, now, now.plusMinutes(5))).isOne();
+            int rows = noteRepository.deleteBatchByUserId(userId, 2);
+            accountDeletionRepository.recordProgress(userId, rows, now.plusMinutes(5));
+        });
+
+        accountPurgeService.purgePendingAccounts();
+        assertThat(deletion().getCompletedAt()).isNull();
+        assertThat(count("notes")).isEqualTo(3);
+
+        expireLease();
+        accountPurgeService.purgePendingAccounts();
+        AccountDeletion deletion = deletion();
+        assertThat(deletion.getCompletedAt()).isNotNull();
+        assertThat(deletion.getNotesDeleted()).isEqualTo(5);
+        assertThat(count("notes")).isZero();
+        assertThat(userRepository.existsById(userId)).isFalse();
+    }
+
+    @Test
+    void letsOnlyOneWorkerClaimADeletion() throws Exception {
+        String authorization = authorization();
+        for (int i = 0; i < 5; i++) {
+            createNote(authorization, "Note " + i, "Body");
+        }
+        deleteAccount(authorization);
+        double completedBefore = meterRegistry.counter("accounts.purge.completed").count();
+
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[2];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> {
+                await(start);
+                accountPurgeService.purge(userId);
+            });
+        }
+        start.countDown();
+        CompletableFuture.allOf(workers).get(10, TimeUnit.SECONDS);
+
+        assertThat(meterRegistry.counter("accounts.purge.completed").count()).isEqualTo(completedBefore + 1);
+        assertThat(deletion().getNotesDeleted()).isEqualTo(5);
+        assertThat(userRepository.existsById(userId)).isFalse();
+    }
+
+    @Test
+    void shutsDeletedAccountsOutBeforeThePurgeRuns() throws Exception {
+        String authorization = authorization();
+        deleteAccount(authorization);
+
+        exchange(authorization, HttpMethod.GET, "/api/notes", null, 401);
+        exchange(null, HttpMethod.POST, "/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", 401);
+        exchange(null, HttpMethod.POST, "/api/auth/login",
+                "{\"email\":\"deleted-" + userId + "@deleted.invalid\",\"password\":\"" + PASSWORD + "\"}", 401);
+        exchange(null, HttpMethod.POST, "/api/auth/refresh",
+                "{\"refreshToken\":\"" + login.path("refreshToken").asText() + "\"}", 401);
+        assertThat(deletion().getCompletedAt()).isNull();
+        assertThat(userRepository.existsById(userId)).isTrue();
+    }
+
+    private String authorization() {
+        return bearer(login.path("token").asText());
+    }
+
+    private void deleteAccount(String authorization) throws Exception {
+        exchange(authorization, HttpMethod.DELETE, "/api/users/" + userId, null, 204);
+    }
+
+    private AccountDeletion deletion() {
+        return accountDeletionRepository.findById(userId).orElseThrow();
+    }
+
+    private void expireLease() {
+        AccountDeletion deletion = deletion();
+        deletion.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        accountDeletionRepository.save(deletion);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Long.class, userId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package dev.leandroschillreff.do_it.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import dev.leandroschillreff.do_it.dto.NoteChangesDTO;
+import dev.leandroschillreff.do_it.dto.NoteDTO;
+import dev.leandroschillreff.do_it.dto.NoteResponseDTO;
+import dev.leandroschillreff.do_it.support.ApiTestSupport;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:notechanges;DB_CLOSE_DELAY=-1")
+class NoteChangesTests extends ApiTestSupport {
+
+    @Autowired
+    private NoteTombstoneRetentionService noteTombstoneRetentionService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String authorization;
+    private long userId;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        JsonNode login = logIn(register("changes"), PASSWORD);
+        authorization = bearer(login.path("token").asText());
+        userId = login.path("user").path("id").asLong();
+    }
+
+    @Test
+    void mergesUpdatesAndDeletionsInChangeOrder() throws Exception {
+        long first = createNote("First");
+        long second = createNote("Second");
+        long third = createNote("Third");
+        exchange(authorization, HttpMethod.PUT, "/api/notes/" + first,
+                "{\"title\":\"First, edited\",\"description\":\"Body\"}", 200);
+        exchange(authorization, HttpMethod.DELETE, "/api/notes/" + second, null, 204);
+
+        JsonNode page = changes(0, 2, 200);
+        assertThat(page.path("notes").findValuesAsText("title")).containsExactly("Third", "First, edited");
+        assertThat(page.path("deletedNoteIds")).isEmpty();
+        assertThat(page.path("hasMore").asBoolean()).isTrue();
+        assertThat(page.path("notes").get(0).path("id").asLong()).isEqualTo(third);
+
+        JsonNode rest = changes(page.path("syncToken").asLong(), 2, 200);
+        assertThat(rest.path("notes")).isEmpty();
+        assertThat(rest.path("deletedNoteIds").get(0).asLong()).isEqualTo(second);
+        assertThat(rest.path("hasMore").asBoolean()).isFalse();
+
+        JsonNode caughtUp = changes(rest.path("syncToken").asLong(), 2, 200);
+        assertThat(caughtUp.path("notes")).isEmpty();
+        assertThat(caughtUp.path("deletedNoteIds")).isEmpty();
+        assertThat(caughtUp.path("syncToken").asLong()).isEqualTo(rest.path("syncToken").asLong());
+    }
+
+    @Test
+    void refusesTokensOlderThanPrunedTombstones() throws Exception {
+        long kept = createNote("Kept");
+        long deleted = createNote("Deleted");
+        long staleToken = changes(0, 10, 200).path("syncToken").asLong();
+        exchange(authorization, HttpMethod.DELETE, "/api/notes/" + deleted, null, 204);
+        long currentToken = changes(staleToken, 10, 200).path("syncToken").asLong();
+
+        assertThat(noteTombstoneRetentionService.prune(LocalDateTime.now().plusMinutes(1))).isPositive();
+
+        changes(staleToken, 10, 410);
+        assertThat(changes(currentToken, 10, 200).path("deletedNoteIds")).isEmpty();
+        JsonNode resync = changes(0, 10, 200);
+        assertThat(resync.path("notes").findValues("id")).extracting(JsonNode::asLong).containsExactly(kept);
+        assertThat(resync.path("deletedNoteIds")).isEmpty();
+    }
+
+    @Test
+    void concurrentWritersNeitherBlockNorGetSkipped() throws Exception {
+        CountDownLatch slowWriterDrewSeq = new CountDownLatch(1);
+        CountDownLatch releaseSlowWriter = new CountDownLatch(1);
+        CompletableFuture<NoteResponseDTO> slowWriter = CompletableFuture.supplyAsync(
+                () -> transactionTemplate.execute(status -> {
+                    NoteResponseDTO created = noteService.createNote(new NoteDTO("Slow", "Body"), userId);
+                    slowWriterDrewSeq.countDown();
+                    await(releaseSlowWriter);
+                    return created;
+                }));
+        assertThat(slowWriterDrewSeq.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The second writer draws a higher sequence value and commits while the first is still open.
+        NoteResponseDTO fast = CompletableFuture.supplyAsync(() -> {
+            NoteResponseDTO created = noteService.createNote(new NoteDTO("Fast", "Body"), userId);
+            return noteService.completeNote(created.getId(), userId, null);
+        }).get(5, TimeUnit.SECONDS);
+        NoteChangesDTO duringSlowWrite = noteService.getChanges(userId, 0, 10);
+        assertThat(duringSlowWrite.getNotes()).isEmpty();
+        assertThat(duringSlowWrite.isHasMore()).isFalse();
+
+        releaseSlowWriter.countDown();
+        NoteResponseDTO slow = slowWriter.get(5, TimeUnit.SECONDS);
+        NoteChangesDTO afterSlowWrite = noteService.getChanges(userId, duringSlowWrite.getSyncToken(), 10);
+        assertThat(afterSlowWrite.getNotes()).extracting(NoteResponseDTO::getId)
+                .containsExactly(slow.getId(), fast.getId());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long createNote(String title) throws Exception {
+        return createNote(authorization, title, "Body");
+    }
+
+    private JsonNode changes(long since, int limit, int expectedStatus) throws Exception {
+        return data(perform(authorization, request(HttpMethod.GET, "/api/notes/changes")
+                .param("since", String.valueOf(since))
+                .param("limit", String.valueOf(limit)), expectedStatus));
+    }
+}
\ No newline at end of file
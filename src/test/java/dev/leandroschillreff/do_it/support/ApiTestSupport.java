@@ -0,0 +1,102 @@
+package dev.leandroschillreff.do_it.support;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the application and drives its API through MockMvc. Each subclass names its own in-memory
+ * database with {@code @TestPropertySource}, so contexts with different properties never share tables.
+ */
+@SpringBootTest(properties = "server.port=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class ApiTestSupport {
+
+    protected static final String PASSWORD = "password123";
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    /**
+     * Registers a user whose e-mail is unique to this call and returns that e-mail.
+     */
+    protected String register(String name) throws Exception {
+        String email = name + "-" + System.nanoTime() + "@do-it.dev";
+        exchange(null, HttpMethod.POST, "/api/auth/register",
+                "{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", 201);
+        return email;
+    }
+
+    protected JsonNode logIn(String email, String password) throws Exception {
+        return exchange(null, HttpMethod.POST, "/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}", 200);
+    }
+
+    /**
+     * Registers and logs in a new user and returns the Authorization header value for them.
+     */
+    protected String signUp(String name) throws Exception {
+        return bearer(logIn(register(name), PASSWORD).path("token").asText());
+    }
+
+    protected long createNote(String authorization, String title, String description) throws Exception {
+        return exchange(authorization, HttpMethod.POST, "/api/notes",
+                "{\"title\":\"" + title + "\",\"description\":\"" + description + "\"}", 201).path("id").asLong();
+    }
+
+    /**
+     * Sends a request with an optional JSON body and returns the {@code data} of the response.
+     */
+    protected JsonNode exchange(String authorization, HttpMethod method, String path, String content,
+            int expectedStatus) throws Exception {
+        MockHttpServletRequestBuilder request = request(method, path);
+        if (content != null) {
+            request.content(content);
+        }
+        return data(perform(authorization, request, expectedStatus));
+    }
+
+    protected MockHttpServletResponse perform(String authorization, MockHttpServletRequestBuilder request,
+            int expectedStatus) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse();
+    }
+
+    protected JsonNode data(MockHttpServletResponse response) throws Exception {
+        String body = response.getContentAsString();
+        return body.isEmpty() ? objectMapper.missingNode() : objectMapper.readTree(body).path("data");
+    }
+
+    protected static String bearer(String accessToken) {
+        return "Bearer " + accessToken;
+    }
+
+    /**
+     * The security filters route by servlet path, which MockMvc leaves empty unless it is set.
+     */
+    protected static MockHttpServletRequestBuilder request(HttpMethod method, String path) {
+        return MockMvcRequestBuilders.request(method, path)
+                .servletPath(path)
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+}
\ No newline at end of file